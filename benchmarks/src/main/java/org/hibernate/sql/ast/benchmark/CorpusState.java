@@ -0,0 +1,84 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2008, Red Hat Middleware LLC or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Middleware LLC.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ *
+ */
+package org.hibernate.sql.ast.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.antlr.runtime.ANTLRStringStream;
+import org.antlr.runtime.CommonTokenStream;
+import org.antlr.runtime.RecognitionException;
+import org.antlr.runtime.tree.Tree;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.hibernate.sql.ast.origin.hql.parse.HQLLexer;
+import org.hibernate.sql.ast.origin.hql.parse.HQLParser;
+import org.hibernate.sql.ast.origin.hql.parse.ParserContextDefaultImpl;
+
+/**
+ * The {@link GUnitCorpus} statements which the current grammar parses without reporting errors.  Filtering is done
+ * once, up front, so that error recovery never ends up in a measurement.
+ */
+@State(Scope.Benchmark)
+public class CorpusState {
+	public String[] statements;
+
+	@Setup
+	public void setUp() {
+		final List<String> accepted = new ArrayList<String>();
+		for ( String statement : GUnitCorpus.getStatements() ) {
+			if ( parsesCleanly( statement ) ) {
+				accepted.add( statement );
+			}
+		}
+		statements = accepted.toArray( new String[accepted.size()] );
+	}
+
+	private static boolean parsesCleanly(String statement) {
+		final HQLParser parser = newParser( statement );
+		try {
+			parser.statement();
+		}
+		catch ( RecognitionException e ) {
+			return false;
+		}
+		catch ( RuntimeException e ) {
+			return false;
+		}
+		return !parser.hasErrors();
+	}
+
+	static HQLParser newParser(String statement) {
+		final HQLParser parser = new HQLParser( new CommonTokenStream( new HQLLexer( new ANTLRStringStream( statement ) ) ) );
+		parser.setParserContext( new ParserContextDefaultImpl() );
+		return parser;
+	}
+
+	static Tree parse(String statement) throws RecognitionException {
+		return ( Tree ) newParser( statement ).statement().getTree();
+	}
+}
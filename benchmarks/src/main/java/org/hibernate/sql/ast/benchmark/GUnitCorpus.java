@@ -0,0 +1,199 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2008, Red Hat Middleware LLC or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Middleware LLC.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ *
+ */
+package org.hibernate.sql.ast.benchmark;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.hibernate.HibernateException;
+
+/**
+ * Loads the statements the gUnit grammar suite expects to parse successfully, for use as a benchmark corpus.
+ * <p/>
+ * Only the <tt>statement:</tt> section is read; both the single-line (<tt>"..." OK</tt>) and the multi-line
+ * (<tt>&lt;&lt;...&gt;&gt; OK</tt>) forms are recognized.  Tests expected to fail, or asserting a tree
+ * (<tt>-&gt;</tt>), are skipped.
+ */
+public final class GUnitCorpus {
+	public static final String RESOURCE = "org/hibernate/sql/ast/origin/hql/parse/gUnitHQLGrammar.testsuite";
+
+	private static final String SECTION = "statement:";
+
+	private static List<String> statements;
+
+	private GUnitCorpus() {
+	}
+
+	/**
+	 * Retrieve the corpus statements, in suite order.
+	 *
+	 * @return The (unmodifiable) statements.
+	 */
+	public static synchronized List<String> getStatements() {
+		if ( statements == null ) {
+			statements = Collections.unmodifiableList( load() );
+		}
+		return statements;
+	}
+
+	private static List<String> load() {
+		InputStream stream = GUnitCorpus.class.getClassLoader().getResourceAsStream( RESOURCE );
+		if ( stream == null ) {
+			throw new HibernateException( "could not locate gUnit suite on classpath : " + RESOURCE );
+		}
+		try {
+			try {
+				return parse( new BufferedReader( new InputStreamReader( stream, "UTF-8" ) ) );
+			}
+			finally {
+				stream.close();
+			}
+		}
+		catch ( IOException e ) {
+			throw new HibernateException( "could not read gUnit suite : " + RESOURCE, e );
+		}
+	}
+
+	static List<String> parse(BufferedReader reader) throws IOException {
+		final List<String> result = new ArrayList<String>();
+		boolean inSection = false;
+		boolean inComment = false;
+		StringBuilder multiLine = null;
+		String line;
+		while ( ( line = reader.readLine() ) != null ) {
+			if ( multiLine != null ) {
+				int end = line.indexOf( ">>" );
+				if ( end < 0 ) {
+					multiLine.append( line ).append( '\n' );
+				}
+				else {
+					multiLine.append( line, 0, end );
+					if ( isOk( line.substring( end + 2 ) ) ) {
+						result.add( multiLine.toString() );
+					}
+					multiLine = null;
+				}
+				continue;
+			}
+
+			final String trimmed = line.trim();
+			if ( inComment ) {
+				inComment = !trimmed.endsWith( "*/" );
+				continue;
+			}
+			if ( trimmed.startsWith( "/*" ) ) {
+				inComment = !trimmed.endsWith( "*/" ) || trimmed.length() < 4;
+				continue;
+			}
+			if ( trimmed.length() == 0 || trimmed.startsWith( "//" ) ) {
+				continue;
+			}
+			if ( isSectionHeader( trimmed ) ) {
+				inSection = SECTION.equals( trimmed );
+				continue;
+			}
+			if ( !inSection ) {
+				continue;
+			}
+
+			if ( trimmed.startsWith( "\"" ) ) {
+				int end = closingQuote( trimmed );
+				if ( end > 0 && isOk( trimmed.substring( end + 1 ) ) ) {
+					result.add( unescape( trimmed.substring( 1, end ) ) );
+				}
+			}
+			else if ( trimmed.startsWith( "<<" ) ) {
+				int end = trimmed.indexOf( ">>", 2 );
+				if ( end < 0 ) {
+					multiLine = new StringBuilder( trimmed.substring( 2 ) ).append( '\n' );
+				}
+				else if ( isOk( trimmed.substring( end + 2 ) ) ) {
+					result.add( trimmed.substring( 2, end ) );
+				}
+			}
+		}
+		return result;
+	}
+
+	private static boolean isSectionHeader(String trimmed) {
+		if ( !trimmed.endsWith( ":" ) ) {
+			return false;
+		}
+		for ( int i = 0; i < trimmed.length() - 1; i++ ) {
+			if ( !Character.isJavaIdentifierPart( trimmed.charAt( i ) ) ) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isOk(String expectation) {
+		return "OK".equals( expectation.trim() );
+	}
+
+	private static int closingQuote(String line) {
+		for ( int i = 1; i < line.length(); i++ ) {
+			char c = line.charAt( i );
+			if ( c == '\\' ) {
+				i++;
+			}
+			else if ( c == '"' ) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private static String unescape(String text) {
+		if ( text.indexOf( '\\' ) < 0 ) {
+			return text;
+		}
+		final StringBuilder buffer = new StringBuilder( text.length() );
+		for ( int i = 0; i < text.length(); i++ ) {
+			char c = text.charAt( i );
+			if ( c == '\\' && i + 1 < text.length() ) {
+				c = text.charAt( ++i );
+				switch ( c ) {
+					case 'n':
+						c = '\n';
+						break;
+					case 't':
+						c = '\t';
+						break;
+					case 'r':
+						c = '\r';
+						break;
+				}
+			}
+			buffer.append( c );
+		}
+		return buffer.toString();
+	}
+}
@@ -0,0 +1,124 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2008, Red Hat Middleware LLC or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Middleware LLC.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ *
+ */
+package org.hibernate.sql.ast.benchmark;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.HSQLDialect;
+import org.hibernate.dialect.function.SQLFunction;
+import org.hibernate.dialect.function.SQLFunctionRegistry;
+import org.hibernate.engine.SessionFactoryImplementor;
+import org.hibernate.sql.Template;
+import org.hibernate.sql.ast.origin.ordering.ColumnMapper;
+import org.hibernate.sql.ast.origin.ordering.OrderByFragmentTranslator;
+import org.hibernate.sql.ast.origin.ordering.TranslationContext;
+
+/**
+ * Renders <tt>ORDER BY</tt> fragments (as found in collection mappings) into templates; {@link #translate} always
+ * runs the full lex/parse/render pipeline whereas {@link #renderTemplate} goes through the translation cache used
+ * by {@link Template}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderByRenderBenchmark {
+	private static final ColumnMapper MAPPER = new ColumnMapper() {
+		public String[] map(String reference) {
+			if ( "component".equals( reference ) ) {
+				return new String[] { "comp_1", "comp_2" };
+			}
+			else if ( "property".equals( reference ) ) {
+				return new String[] { "prop" };
+			}
+			return null;
+		}
+	};
+
+	@Param({
+			"property asc",
+			"sql asc, `sql` desc",
+			"component asc, property desc nulls last",
+			"upper(sql) asc, lower(property) desc",
+			"trim(leading '.' from property) asc, abs(sql) desc",
+			"sql collate latin_1 asc, substring(property, 1, 3) desc"
+	})
+	public String fragment;
+
+	private Dialect dialect;
+	private SQLFunctionRegistry functionRegistry;
+	private OrderByFragmentTranslator translator;
+
+	@Setup
+	public void setUp() {
+		dialect = new HSQLDialect();
+		functionRegistry = new SQLFunctionRegistry( dialect, Collections.<String,SQLFunction>emptyMap() );
+		translator = new OrderByFragmentTranslator(
+				new TranslationContext() {
+					public SessionFactoryImplementor getSessionFactory() {
+						return null;
+					}
+
+					public Dialect getDialect() {
+						return dialect;
+					}
+
+					public SQLFunctionRegistry getSqlFunctionRegistry() {
+						return functionRegistry;
+					}
+
+					public ColumnMapper getColumnMapper() {
+						return MAPPER;
+					}
+				}
+		);
+	}
+
+	@Benchmark
+	public String translate() {
+		return translator.render( fragment );
+	}
+
+	@Benchmark
+	public String renderTemplate() {
+		return Template.renderOrderByStringTemplate( fragment, MAPPER, null, dialect, functionRegistry );
+	}
+}
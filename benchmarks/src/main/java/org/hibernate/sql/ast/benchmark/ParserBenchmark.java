@@ -0,0 +1,83 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2008, Red Hat Middleware LLC or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Middleware LLC.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ *
+ */
+package org.hibernate.sql.ast.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.antlr.runtime.RecognitionException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import org.hibernate.sql.ast.origin.hql.parse.ParseTreeCache;
+import org.hibernate.sql.ast.origin.hql.parse.ParserContextDefaultImpl;
+
+/**
+ * Lexes and parses the whole corpus per invocation, either from scratch or through a warm {@link ParseTreeCache}
+ * large enough to hold every statement (which then measures only the lookup and the tree copy).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParserBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class CacheState {
+		public ParseTreeCache cache;
+
+		@Setup
+		public void setUp(CorpusState corpus) throws RecognitionException {
+			cache = new ParseTreeCache( new ParserContextDefaultImpl(), corpus.statements.length, Integer.MAX_VALUE );
+			for ( String statement : corpus.statements ) {
+				cache.getStatementTree( statement );
+			}
+		}
+	}
+
+	@Benchmark
+	public void parseCorpus(CorpusState corpus, Blackhole blackhole) throws RecognitionException {
+		for ( String statement : corpus.statements ) {
+			blackhole.consume( CorpusState.parse( statement ) );
+		}
+	}
+
+	@Benchmark
+	public void parseCorpusCached(CorpusState corpus, CacheState cacheState, Blackhole blackhole)
+			throws RecognitionException {
+		for ( String statement : corpus.statements ) {
+			blackhole.consume( cacheState.cache.getStatementTree( statement ) );
+		}
+	}
+}
@@ -0,0 +1,86 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2008, Red Hat Middleware LLC or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Middleware LLC.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ *
+ */
+package org.hibernate.sql.ast.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.antlr.runtime.RecognitionException;
+import org.antlr.runtime.tree.CommonTreeNodeStream;
+import org.antlr.runtime.tree.Tree;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.hibernate.sql.ast.origin.hql.parse.ParseTreeCache;
+import org.hibernate.sql.ast.origin.hql.resolve.HQLResolver;
+
+/**
+ * Resolves statements made up mostly of deep (component and many-to-one) property paths, which is where the path
+ * tracking of the resolution strategies matters.  Best run with <tt>-prof gc</tt> and compared on
+ * <tt>gc.alloc.rate.norm</tt>; as for {@link ResolverBenchmark}, {@link #copyOnly} gives the cost of the tree copy
+ * included in {@link #resolve}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PathResolutionBenchmark {
+	@Param({
+			"from Zoo z where z.address.stateProvince.isoCode = 'TX' and z.address.city = 'Austin' and z.address.street = 'x'",
+			"select h.name.first, h.name.initial, h.name.last from Human h where h.mother.name.last = 'x' and h.father.mother.name.first = 'y'",
+			"select z.address.city from Zoo z where z.address.city = 'Austin' order by z.address.city"
+	})
+	public String hql;
+
+	private ParseTreeCache parseTreeCache;
+
+	@Setup
+	public void setUp() throws RecognitionException {
+		parseTreeCache = new ParseTreeCache();
+		parseTreeCache.getStatementTree( hql );
+	}
+
+	@Benchmark
+	public Tree resolve(SessionFactoryState state) throws RecognitionException {
+		Tree tree = parseTreeCache.getStatementTree( hql );
+		HQLResolver resolver = new HQLResolver( new CommonTreeNodeStream( tree ), state.sessionFactory );
+		return ( Tree ) resolver.statement().getTree();
+	}
+
+	@Benchmark
+	public Tree copyOnly() throws RecognitionException {
+		return parseTreeCache.getStatementTree( hql );
+	}
+}
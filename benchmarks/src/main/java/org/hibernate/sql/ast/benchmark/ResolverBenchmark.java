@@ -0,0 +1,105 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2008, Red Hat Middleware LLC or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Middleware LLC.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ *
+ */
+package org.hibernate.sql.ast.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.antlr.runtime.RecognitionException;
+import org.antlr.runtime.tree.CommonTreeNodeStream;
+import org.antlr.runtime.tree.Tree;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.hibernate.sql.ast.origin.hql.parse.ParseTreeCache;
+import org.hibernate.sql.ast.origin.hql.resolve.HQLResolver;
+import org.hibernate.sql.ast.origin.hql.resolve.HQLResolverFactory;
+
+/**
+ * Resolves statements against the test domain model.  The resolver rewrites the tree it walks, so each invocation
+ * resolves a fresh copy handed out by a warm {@link ParseTreeCache}; {@link #copyOnly} measures that copy alone so
+ * that it can be subtracted.  {@link #resolvePooled} resolves through a {@link HQLResolverFactory}, reusing the
+ * thread's resolver instead of building a new one.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResolverBenchmark {
+	@Param({
+			"from Animal",
+			"from Animal a where a.bodyWeight > 10",
+			"select a.mother from Animal a where a.father.description = 'x'",
+			"from Zoo z where z.mammals['dog'].id = ?",
+			"from Zoo z where z.address.city = 'Austin'",
+			"from Human h join h.friends f where f.nickName = 'x'",
+			"select h.name.first from Human h order by h.height"
+	})
+	public String hql;
+
+	private ParseTreeCache parseTreeCache;
+	private HQLResolverFactory resolverFactory;
+
+	@Setup
+	public void setUp(SessionFactoryState state) throws RecognitionException {
+		parseTreeCache = new ParseTreeCache();
+		parseTreeCache.getStatementTree( hql );
+		resolverFactory = new HQLResolverFactory( state.sessionFactory );
+	}
+
+	@Benchmark
+	public Tree resolve(SessionFactoryState state) throws RecognitionException {
+		Tree tree = parseTreeCache.getStatementTree( hql );
+		HQLResolver resolver = new HQLResolver( new CommonTreeNodeStream( tree ), state.sessionFactory );
+		return ( Tree ) resolver.statement().getTree();
+	}
+
+	@Benchmark
+	public Tree resolvePooled() throws RecognitionException {
+		Tree tree = parseTreeCache.getStatementTree( hql );
+		HQLResolver resolver = resolverFactory.acquireResolver( new CommonTreeNodeStream( tree ) );
+		try {
+			return ( Tree ) resolver.statement().getTree();
+		}
+		finally {
+			resolverFactory.releaseResolver( resolver );
+		}
+	}
+
+	@Benchmark
+	public Tree copyOnly() throws RecognitionException {
+		return parseTreeCache.getStatementTree( hql );
+	}
+}
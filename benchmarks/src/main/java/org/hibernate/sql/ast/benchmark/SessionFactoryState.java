@@ -0,0 +1,70 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2008, Red Hat Middleware LLC or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Middleware LLC.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ *
+ */
+package org.hibernate.sql.ast.benchmark;
+
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import org.hibernate.cfg.Configuration;
+import org.hibernate.cfg.Environment;
+import org.hibernate.dialect.HSQLDialect;
+import org.hibernate.engine.SessionFactoryImplementor;
+import org.hibernate.hql.classic.ClassicQueryTranslatorFactory;
+
+/**
+ * A SessionFactory over the test domain model (<tt>Mappings.hbm.xml</tt>), backed by an in-memory HSQLDB database.
+ * No schema is exported and no connection is needed by the benchmarks; the database is only there so that the
+ * factory can be built without any external resource.
+ */
+@State(Scope.Benchmark)
+public class SessionFactoryState {
+	public static final String MAPPINGS = "org/hibernate/sql/ast/origin/hql/domain/Mappings.hbm.xml";
+
+	public SessionFactoryImplementor sessionFactory;
+
+	@Setup
+	public void setUp() {
+		sessionFactory = ( SessionFactoryImplementor ) new Configuration()
+				.setProperty( Environment.DRIVER, "org.hsqldb.jdbcDriver" )
+				.setProperty( Environment.URL, "jdbc:hsqldb:mem:benchmarks" )
+				.setProperty( Environment.USER, "sa" )
+				.setProperty( Environment.HBM2DDL_AUTO, "none" )
+				.setProperty( Environment.DIALECT, HSQLDialect.class.getName() )
+				.setProperty( Environment.QUERY_TRANSLATOR, ClassicQueryTranslatorFactory.class.getName() )
+				.setProperty( Environment.USE_SECOND_LEVEL_CACHE, "false" )
+				.addResource( MAPPINGS )
+				.buildSessionFactory();
+	}
+
+	@TearDown
+	public void tearDown() {
+		if ( sessionFactory != null ) {
+			sessionFactory.close();
+			sessionFactory = null;
+		}
+	}
+}
@@ -0,0 +1,85 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2008, Red Hat Middleware LLC or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Middleware LLC.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ *
+ */
+package org.hibernate.sql.ast.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.hibernate.sql.ast.alias.TableAliasGenerator;
+import org.hibernate.sql.ast.origin.hql.parse.HQLLexer;
+import org.hibernate.sql.ast.origin.hql.resolve.ResolutionMetadata;
+import org.hibernate.sql.ast.tree.Table;
+import org.hibernate.sql.ast.util.TreePrinter;
+
+/**
+ * Generates the table space of an entity reference, as the resolver does for every entity named in a query.
+ * {@link #generateAndRender} adds the tree rendering every generation used to pay for unconditionally (a new
+ * {@link TreePrinter} plus the rendering itself, less the console output); the difference between the two is the
+ * per-reference saving of gating tree diagnostics.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TableSpaceBenchmark {
+	@Param({ "Animal", "Human", "Zoo" })
+	public String entityName;
+
+	private ResolutionMetadata.EntityMetadata metadata;
+
+	@Setup
+	public void setUp(SessionFactoryState state) {
+		metadata = ResolutionMetadata.forSessionFactory( state.sessionFactory )
+				.getEntityMetadata( state.sessionFactory.getImportedClassName( entityName ) );
+	}
+
+	@Benchmark
+	public Table generate() {
+		return new Table.EntityTableSpace( metadata, aliasRoot() ).getDrivingTable();
+	}
+
+	@Benchmark
+	public String generateAndRender() {
+		Table drivingTable = generate();
+		return new TreePrinter( HQLLexer.class ).renderAsString( drivingTable, "Generated table space" );
+	}
+
+	private TableAliasGenerator.TableAliasRoot aliasRoot() {
+		return new TableAliasGenerator.TableAliasRoot( "e", "e0_" );
+	}
+}
@@ -0,0 +1,107 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2008, Red Hat Middleware LLC or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Middleware LLC.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ *
+ */
+package org.hibernate.sql.ast.benchmark;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.HSQLDialect;
+import org.hibernate.dialect.function.SQLFunction;
+import org.hibernate.dialect.function.SQLFunctionRegistry;
+import org.hibernate.sql.CompiledTemplate;
+import org.hibernate.sql.KeywordClassifier;
+import org.hibernate.sql.Template;
+import org.hibernate.util.StringHelper;
+
+/**
+ * Renders <tt>where</tt>/formula fragments into templates, and then qualifies the resulting templates with an
+ * alias, either by plain string replacement or through a {@link CompiledTemplate}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WhereTemplateBenchmark {
+	private static final String ALIAS = "animal0_";
+
+	@Param({
+			"active = 1",
+			"upper(name) like 'A%' and deleted is null",
+			"extract(year from created) = 2008 or trim(leading '0' from code) <> ''",
+			"exists (select 1 from audit a where a.entity_id = id and a.kind in ('X', 'Y'))",
+			"case when price > 10 then price * 0.9 else price end > cost + `margin`"
+	})
+	public String fragment;
+
+	private Dialect dialect;
+	private SQLFunctionRegistry functionRegistry;
+	private KeywordClassifier classifier;
+	private String template;
+	private CompiledTemplate compiledTemplate;
+
+	@Setup
+	public void setUp() {
+		dialect = new HSQLDialect();
+		functionRegistry = new SQLFunctionRegistry( dialect, Collections.<String,SQLFunction>emptyMap() );
+		classifier = KeywordClassifier.forDialect( dialect );
+		template = Template.renderWhereStringTemplate( fragment, dialect, functionRegistry );
+		compiledTemplate = Template.compileWhereStringTemplate( fragment, dialect, functionRegistry );
+	}
+
+	@Benchmark
+	public String render() {
+		return Template.renderWhereStringTemplate( fragment, Template.TEMPLATE, dialect, functionRegistry );
+	}
+
+	@Benchmark
+	public String renderWithClassifier() {
+		return Template.renderWhereStringTemplate( fragment, Template.TEMPLATE, dialect, classifier );
+	}
+
+	@Benchmark
+	public String qualifyByReplace() {
+		return StringHelper.replace( template, Template.TEMPLATE, ALIAS );
+	}
+
+	@Benchmark
+	public String qualifyCompiled() {
+		return compiledTemplate.render( ALIAS );
+	}
+}
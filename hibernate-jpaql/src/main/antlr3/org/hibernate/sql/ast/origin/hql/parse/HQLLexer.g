@@ -185,6 +185,29 @@ tokens {
 package org.hibernate.sql.ast.origin.hql.parse;
 }
 
+@members {
+	/**
+	 * Identifiers are emitted as {@link IdentifierToken}s, tagged with their soft keyword id.
+	 */
+	public Token emit() {
+		if ( state.type != IDENTIFIER ) {
+			return super.emit();
+		}
+		Token token = new IdentifierToken(
+				input,
+				state.type,
+				state.channel,
+				state.tokenStartCharIndex,
+				getCharIndex() - 1,
+				state.text
+		);
+		token.setLine( state.tokenStartLine );
+		token.setCharPositionInLine( state.tokenStartCharPositionInLine );
+		emit( token );
+		return token;
+	}
+}
+
 WS      :       (	' '
                 |	'\t'
                 |	'\f'
@@ -42,32 +42,53 @@ import java.util.HashSet;
 import java.util.Set;
 import java.util.Iterator;
 import org.hibernate.sql.ast.tree.EntityNameTree;
+import org.hibernate.sql.ast.alias.ImplicitAliasGenerator;
 }
 
 @parser::members {
 	private Stack enableParameterUsage = new Stack();
 	private ParserContext context = new ParserContextDefaultImpl();
+	private final ImplicitAliasGenerator implicitAliasGenerator = new ImplicitAliasGenerator();
     private List errorMessages = new LinkedList();
 
 	public void setParserContext(ParserContext context){
 		this.context = context;
 	}
 
-	private boolean validateSoftKeyword(String text) {
-		return validateLT(1, text);
+	private boolean validateSoftKeyword(int softKeyword) {
+		return validateLT(1, softKeyword);
 	}
 
-	private boolean validateLT(int offset, String text) {
-		String text2Validate = retrieveLT( offset );
-		return text2Validate == null ? false : text2Validate.equalsIgnoreCase( text );
-	}
-
-	private String retrieveLT(int offset) {
+	private boolean validateLT(int offset, int softKeyword) {
       	if (null == input) {
-      		return null;
+      		return false;
       	}
 		Token token = input.LT(offset);
-		return token == null ? null : token.getText();
+		return token == null ? false : SoftKeywords.of( token ) == softKeyword;
+	}
+
+	/**
+	 * <tt>in ( path ) alias</tt>
+	 */
+	private boolean isJpaCollectionReferenceStart() {
+		return validateSoftKeyword(SoftKeywords.IN) && input.LA(2) == LEFT_PAREN;
+	}
+
+	/**
+	 * <tt>alias in class entityName</tt> or <tt>alias in elements|indices( path )</tt>
+	 */
+	private boolean isHibernateLegacySyntaxStart() {
+		return input.LA(1) == IDENTIFIER
+				&& validateLT(2, SoftKeywords.IN)
+				&& ( validateLT(3, SoftKeywords.CLASS) || validateLT(3, SoftKeywords.ELEMENTS) || validateLT(3, SoftKeywords.INDICES) );
+	}
+
+	/**
+	 * <tt>case</tt> not followed by <tt>when</tt> can only start a simple case; <tt>case when ...</tt> may be either
+	 * (<tt>when</tt> can be the operand of a simple case, as in <tt>case when.x when 1 ...</tt>)
+	 */
+	private boolean isSimpleCaseStart() {
+		return !validateLT(2, SoftKeywords.WHEN);
 	}
 
 	public boolean hasErrors() {
@@ -311,7 +332,7 @@ insertStatement
 //TODO: Generate an exception when try to use a polimorfic entity at INTO clause
 intoClause
 	:	into_key entityName insertabilitySpecification
-		-> ^(into_key entityName ALIAS_NAME[context.buildUniqueImplicitAlias()] insertabilitySpecification)
+		-> ^(into_key entityName ALIAS_NAME[implicitAliasGenerator.buildUniqueImplicitAlias()] insertabilitySpecification)
 	;
 
 insertabilitySpecification
@@ -425,12 +446,11 @@ outerJoinType
 	|	full_key
 	;
 
+// decided on the soft keywords up front (rather than by backtracking) as every from clause goes through here
 persisterSpaceRoot
-options{
-backtrack=true;
-}	:	mainEntityPersisterReference
-	|	jpaCollectionReference
-	|	hibernateLegacySyntax
+	:	{isJpaCollectionReferenceStart()}?=> jpaCollectionReference
+	|	{isHibernateLegacySyntaxStart()}?=> hibernateLegacySyntax
+	|	{!isJpaCollectionReferenceStart() && !isHibernateLegacySyntaxStart()}?=> mainEntityPersisterReference
 	;
 
 mainEntityPersisterReference
@@ -489,7 +509,7 @@ selectExpression
 aliasClause[boolean generateAlias]
 options{
     k=2;
-}	:	-> {$generateAlias}? ALIAS_NAME[context.buildUniqueImplicitAlias()]
+}	:	-> {$generateAlias}? ALIAS_NAME[implicitAliasGenerator.buildUniqueImplicitAlias()]
 		->
 	|	aliasDeclaration
 	|	as_key! aliasDeclaration
@@ -623,7 +643,7 @@ likeEscape
 inList
 	:	collectionExpression
 		-> ^(IN_LIST collectionExpression)
-	|	LEFT_PAREN ( {((validateSoftKeyword("select")|validateSoftKeyword("from")))}?=> subQuery | concatenation (COMMA concatenation)* ) RIGHT_PAREN
+	|	LEFT_PAREN ( {((validateSoftKeyword(SoftKeywords.SELECT)|validateSoftKeyword(SoftKeywords.FROM)))}?=> subQuery | concatenation (COMMA concatenation)* ) RIGHT_PAREN
 		-> ^(IN_LIST concatenation* subQuery?)
 	;
 
@@ -668,10 +688,10 @@ caseAbbreviation
 	|	coalesce_key^ LEFT_PAREN! concatenation (COMMA! concatenation)* RIGHT_PAREN!
 	;
 
+// only 'case when ...' needs to look past the operand; that prefers the simple case, as backtracking did
 caseSpecification
-options{
-backtrack=true;
-}	:	simpleCase
+	:	{isSimpleCaseStart()}?=> simpleCase
+	|	(simpleCase)=> simpleCase
 	|	searchedCase
 	;
 
@@ -899,7 +919,7 @@ atom
 	|	constant
 	|	parameterSpecification { if (enableParameterUsage.peek().equals(Boolean.FALSE)) throw new RecognitionException( ); }
 	//validate using Scopes if it is enabled or not to use parameterSpecification.. if not generate an exception 
-	|	LEFT_PAREN! ({((validateSoftKeyword("select")|validateSoftKeyword("from")))}?=> subQuery|expressionOrVector) RIGHT_PAREN!
+	|	LEFT_PAREN! ({((validateSoftKeyword(SoftKeywords.SELECT)|validateSoftKeyword(SoftKeywords.FROM)))}?=> subQuery|expressionOrVector) RIGHT_PAREN!
 	;
 
 parameterSpecification
@@ -992,488 +1012,488 @@ path
 	;
 
 class_key
-	:	{(validateSoftKeyword("class"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.CLASS))}?=>  id=IDENTIFIER
 		->	CLASS[$id]
 	;
 
 new_key
-	:	{(validateSoftKeyword("new"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.NEW))}?=>  id=IDENTIFIER
 		->	NEW[$id]
 	;
 
 else_key
-	:	{(validateSoftKeyword("else"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.ELSE))}?=>  id=IDENTIFIER
 		->	ELSE[$id]
 	;
 
 object_key
-	:	{(validateSoftKeyword("object"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.OBJECT))}?=>  id=IDENTIFIER
 	;
 
 case_key
-	:	{(validateSoftKeyword("case"))}?=>  IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.CASE))}?=>  IDENTIFIER
 	;
 
 current_date_key
-	:	{(validateSoftKeyword("current_date"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.CURRENT_DATE))}?=>  id=IDENTIFIER
 		->	CURRENT_DATE[$id]
 	;
 
 current_time_key
-	:	{(validateSoftKeyword("current_time"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.CURRENT_TIME))}?=>  id=IDENTIFIER
 		->	CURRENT_TIME[$id]
 	;
 
 current_timestamp_key
-	:	{(validateSoftKeyword("current_timestamp"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.CURRENT_TIMESTAMP))}?=>  id=IDENTIFIER
 		->	CURRENT_TIMESTAMP[$id]
 	;
 
 timezone_hour_key
-	:	{(validateSoftKeyword("timezone_hour"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.TIMEZONE_HOUR))}?=>  id=IDENTIFIER
 		->	TIMEZONE_HOUR[$id]
 	;
 
 timezone_minute_key
-	:	{(validateSoftKeyword("timezone_minute"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.TIMEZONE_MINUTE))}?=>  id=IDENTIFIER
 		->	TIMEZONE_MINUTE[$id]
 	;
 
 character_length_key
-	:	{(validateSoftKeyword("character_length") || validateSoftKeyword("char_length"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.CHARACTER_LENGTH) || validateSoftKeyword(SoftKeywords.CHAR_LENGTH))}?=>  id=IDENTIFIER
 		->	CHARACTER_LENGTH[$id]
 	;
 
 octet_length_key
-	:	{(validateSoftKeyword("octet_length"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.OCTET_LENGTH))}?=>  id=IDENTIFIER
 		->	OCTET_LENGTH[$id]
 	;
 
 bit_length_key
-	:	{(validateSoftKeyword("bit_length"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.BIT_LENGTH))}?=>  id=IDENTIFIER
 		->	BIT_LENGTH[$id]
 	;
 
 extract_key
-	:	{(validateSoftKeyword("extract"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.EXTRACT))}?=>  id=IDENTIFIER
 		->	EXTRACT[$id]
 	;
 
 second_key
-	:	{(validateSoftKeyword("second"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.SECOND))}?=>  id=IDENTIFIER
 		->	SECOND[$id]
 	;
 
 year_key
-	:	{(validateSoftKeyword("year"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.YEAR))}?=>  id=IDENTIFIER
 		->	YEAR[$id]
 	;
 
 month_key
-	:	{(validateSoftKeyword("month"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.MONTH))}?=>  id=IDENTIFIER
 		->	MONTH[$id]
 	;
 
 day_key
-	:	{(validateSoftKeyword("day"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.DAY))}?=>  id=IDENTIFIER
 		->	DAY[$id]
 	;
 
 hour_key
-	:	{(validateSoftKeyword("hour"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.HOUR))}?=>  id=IDENTIFIER
 		->	HOUR[$id]
 	;
 
 minute_key
-	:	{(validateSoftKeyword("minute"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.MINUTE))}?=>  id=IDENTIFIER
 		->	MINUTE[$id]
 	;
 
 position_key
-	:	{(validateSoftKeyword("position"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.POSITION))}?=>  id=IDENTIFIER
 		->	POSITION[$id]
 	;
 
 sum_key
-	:	{(validateSoftKeyword("sum"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.SUM))}?=>  id=IDENTIFIER
 		->	SUM[$id]
 	;
 
 avg_key
-	:	{(validateSoftKeyword("avg"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.AVG))}?=>  id=IDENTIFIER
 		->	AVG[$id]
 	;
 
 max_key
-	:	{(validateSoftKeyword("max"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.MAX))}?=>  id=IDENTIFIER
 		->	MAX[$id]
 	;
 
 min_key
-	:	{(validateSoftKeyword("min"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.MIN))}?=>  id=IDENTIFIER
 		->	MIN[$id]
 	;
 
 count_key
-	:	{(validateSoftKeyword("count"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.COUNT))}?=>  id=IDENTIFIER
 		->	COUNT[$id]
 	;
 
 maxelement_key
-	:	{(validateSoftKeyword("maxelement"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.MAXELEMENT))}?=>  id=IDENTIFIER
 		->	MAXELEMENT[$id]
 	;
 
 maxindex_key
-	:	{(validateSoftKeyword("maxindex"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.MAXINDEX))}?=>  id=IDENTIFIER
 		->	MAXINDEX[$id]
 	;
 
 minelement_key
-	:	{(validateSoftKeyword("minelement"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.MINELEMENT))}?=>  id=IDENTIFIER
 		->	MINELEMENT[$id]
 	;
 
 minindex_key
-	:	{(validateSoftKeyword("minindex"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.MININDEX))}?=>  id=IDENTIFIER
 		->	MININDEX[$id]
 	;
 
 locate_key
-	:	{(validateSoftKeyword("locate"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.LOCATE))}?=>  id=IDENTIFIER
 		->	LOCATE[$id]
 	;
 
 abs_key
-	:	{(validateSoftKeyword("abs"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.ABS))}?=>  id=IDENTIFIER
 		->	ABS[$id]
 	;
 
 sqrt_key
-	:	{(validateSoftKeyword("sqrt"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.SQRT))}?=>  id=IDENTIFIER
 		->	SQRT[$id]
 	;
 
 mod_key
-	:	{(validateSoftKeyword("mod"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.MOD))}?=>  id=IDENTIFIER
 		->	MOD[$id]
 	;
 
 size_key
-	:	{(validateSoftKeyword("size"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.SIZE))}?=>  id=IDENTIFIER
 		->	SIZE[$id]
 	;
 
 index_key
-	:	{(validateSoftKeyword("index"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.INDEX))}?=>  id=IDENTIFIER
 		->	INDEX[$id]
 	;
 
 leading_key
-	:	{(validateSoftKeyword("leading"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.LEADING))}?=>  id=IDENTIFIER
 		->	LEADING[$id]
 	;
 
 trailing_key
-	:	{(validateSoftKeyword("trailing"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.TRAILING))}?=>  id=IDENTIFIER
 		->	TRAILING[$id]
 	;
 
 upper_key
-	:	{(validateSoftKeyword("upper"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.UPPER))}?=>  id=IDENTIFIER
 		->	UPPER[$id]
 	;
 
 lower_key
-	:	{(validateSoftKeyword("lower"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.LOWER))}?=>  id=IDENTIFIER
 		->	LOWER[$id]
 	;
 
 length_key
-	:	{(validateSoftKeyword("length"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.LENGTH))}?=>  id=IDENTIFIER
 		->	LENGTH[$id]
 	;
 
 both_key
-	:	{(validateSoftKeyword("both"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.BOTH))}?=>  id=IDENTIFIER
 		->	BOTH[$id]
 	;
 
 trim_key
-	:	{(validateSoftKeyword("trim"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.TRIM))}?=>  id=IDENTIFIER
 		->	TRIM[$id]
 	;
 	
 substring_key
-	:	{(validateSoftKeyword("substring"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.SUBSTRING))}?=>  id=IDENTIFIER
 		->	SUBSTRING[$id]
 	;
 
 concat_key
-	:	{(validateSoftKeyword("concat"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.CONCAT))}?=>  id=IDENTIFIER
 		->	CONCAT[$id]
 	;
 
 cast_key
-	:	{(validateSoftKeyword("cast"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.CAST))}?=>  id=IDENTIFIER
 		->	CAST[$id]
 	;
 
 any_key
-	:	{(validateSoftKeyword("any"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.ANY))}?=>  id=IDENTIFIER
 		->	ANY[$id]
 	;
 
 exists_key
-	:	{(validateSoftKeyword("exists"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.EXISTS))}?=>  id=IDENTIFIER
 		->	EXISTS[$id]
 	;
 
 some_key
-	:	{(validateSoftKeyword("some"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.SOME))}?=>  id=IDENTIFIER
 		->	SOME[$id]
 	;
 
 then_key
-	:	{(validateSoftKeyword("then"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.THEN))}?=>  id=IDENTIFIER
 		->	THEN[$id]
 	;
 
 end_key
-	:	{(validateSoftKeyword("end"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.END))}?=>  id=IDENTIFIER
 		->	END[$id]
 	;
 
 
 when_key
-	:	{(validateSoftKeyword("when"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.WHEN))}?=>  id=IDENTIFIER
 		->	WHEN[$id]
 	;
 
 nullif_key
-	:	{(validateSoftKeyword("nullif"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.NULLIF))}?=>  id=IDENTIFIER
 		->	NULLIF[$id]
 	;
 
 coalesce_key
-	:	{(validateSoftKeyword("coalesce"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.COALESCE))}?=>  id=IDENTIFIER
 		->	COALESCE[$id]
 	;
 
 escape_key
-	:	{(validateSoftKeyword("escape"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.ESCAPE))}?=>  id=IDENTIFIER
 		->	ESCAPE[$id]
 	;
 
 like_key
-	:	{(validateSoftKeyword("like"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.LIKE))}?=>  id=IDENTIFIER
 		->	LIKE[$id]
 	;
 
 between_key
-	:	{(validateSoftKeyword("between"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.BETWEEN))}?=>  id=IDENTIFIER
 		->	BETWEEN[$id]
 	;
 
 member_of_key
 @init{
 	String text = "";
-}	:	{(validateSoftKeyword("member") && validateLT(2, "of"))}?=>  id=IDENTIFIER IDENTIFIER {text = $text;}
+}	:	{(validateSoftKeyword(SoftKeywords.MEMBER) && validateLT(2, SoftKeywords.OF))}?=>  id=IDENTIFIER IDENTIFIER {text = $text;}
 		->	MEMBER_OF[$id]
 	;
 
 empty_key
-	:	{(validateSoftKeyword("empty"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.EMPTY))}?=>  id=IDENTIFIER
 	;
 
-is_key	:	{(validateSoftKeyword("is"))}?=>  id=IDENTIFIER
+is_key	:	{(validateSoftKeyword(SoftKeywords.IS))}?=>  id=IDENTIFIER
 		->	IS[$id]
 	;
 
-or_key	:	{(validateSoftKeyword("or"))}?=>  id=IDENTIFIER
+or_key	:	{(validateSoftKeyword(SoftKeywords.OR))}?=>  id=IDENTIFIER
 		->	OR[$id]
 	;
 
-and_key	:	{(validateSoftKeyword("and"))}?=>  id=IDENTIFIER
+and_key	:	{(validateSoftKeyword(SoftKeywords.AND))}?=>  id=IDENTIFIER
 		->	AND[$id]
 	;
 
-not_key	:	{(validateSoftKeyword("not"))}?=>  id=IDENTIFIER
+not_key	:	{(validateSoftKeyword(SoftKeywords.NOT))}?=>  id=IDENTIFIER
 		->	NOT[$id]
 	;
 
 set_key
-	:	{(validateSoftKeyword("set"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.SET))}?=>  id=IDENTIFIER
 		->	SET[$id]
 	;
 
 versioned_key
-	:	{(validateSoftKeyword("versioned"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.VERSIONED))}?=>  id=IDENTIFIER
 		->	VERSIONED[$id]
 	;
 
 udpate_key
-	:	{(validateSoftKeyword("update"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.UPDATE))}?=>  id=IDENTIFIER
 		->	UPDATE[$id]
 	;
 
 delete_key
-	:	{(validateSoftKeyword("delete"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.DELETE))}?=>  id=IDENTIFIER
 		->	DELETE[$id]
 	;
 
 insert_key
-	:	{(validateSoftKeyword("insert"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.INSERT))}?=>  id=IDENTIFIER
 		->	INSERT[$id]
 	;
 
 into_key
-	:	{(validateSoftKeyword("into"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.INTO))}?=>  id=IDENTIFIER
 		->	INTO[$id]
 	;
 
 having_key
-	:	{(validateSoftKeyword("having"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.HAVING))}?=>  id=IDENTIFIER
 		->	HAVING[$id]
 	;
 
 with_key
-	:	{(validateSoftKeyword("with"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.WITH))}?=>  id=IDENTIFIER
 		->	WITH[$id]
 	;
 
 on_key
-	:	{(validateSoftKeyword("on"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.ON))}?=>  id=IDENTIFIER
 		->	ON[$id]
 	;
 
 indices_key
-	:	{(validateSoftKeyword("indices"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.INDICES))}?=>  id=IDENTIFIER
 		->	INDICES[$id]
 	;
 
 cross_key
-	:	{(validateSoftKeyword("cross"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.CROSS))}?=>  id=IDENTIFIER
 		->	CROSS[$id]
 	;
 
 join_key
-	:	{(validateSoftKeyword("join"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.JOIN))}?=>  id=IDENTIFIER
 		->	JOIN[$id]
 	;
 
 inner_key
-	:	{(validateSoftKeyword("inner"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.INNER))}?=>  id=IDENTIFIER
 		->	INNER[$id]
 	;
 
 outer_key
-	:	{(validateSoftKeyword("outer"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.OUTER))}?=>  id=IDENTIFIER
 		->	OUTER[$id]
 	;
 
 left_key
-	:	{(validateSoftKeyword("left"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.LEFT))}?=>  id=IDENTIFIER
 		->	LEFT[$id]
 	;
 
 right_key
-	:	{(validateSoftKeyword("right"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.RIGHT))}?=>  id=IDENTIFIER
 		->	RIGHT[$id]
 	;
 
 full_key
-	:	{(validateSoftKeyword("full"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.FULL))}?=>  id=IDENTIFIER
 		->	FULL[$id]
 	;
 
 elements_key
-	:	{(validateSoftKeyword("elements"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.ELEMENTS))}?=>  id=IDENTIFIER
 		->	ELEMENTS[$id]
 	;
 
 properties_key
-	:	{(validateSoftKeyword("properties"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.PROPERTIES))}?=>  id=IDENTIFIER
 		->	PROPERTIES[$id]
 	;
 
 fetch_key
-	:	{(validateSoftKeyword("fetch"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.FETCH))}?=>  id=IDENTIFIER
 		->	FETCH[$id]
 	;
 
 in_key
-	:	{(validateSoftKeyword("in"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.IN))}?=>  id=IDENTIFIER
 		->	IN[$id]
 	;
 
 as_key
-	:	{(validateSoftKeyword("as"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.AS))}?=>  id=IDENTIFIER
 		->	AS[$id]
 	;
 
 where_key
-	:	{(validateSoftKeyword("where"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.WHERE))}?=>  id=IDENTIFIER
 		->	WHERE[$id]
 	;
 
 select_key
-	:	{(validateSoftKeyword("select"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.SELECT))}?=>  id=IDENTIFIER
 		->	SELECT[$id]
 	;
 
 distinct_key
-	:	{(validateSoftKeyword("distinct"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.DISTINCT))}?=>  id=IDENTIFIER
 		->	DISTINCT[$id]
 	;
 
 union_key
-	:	{(validateSoftKeyword("union"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.UNION))}?=>  id=IDENTIFIER
 		->	UNION[$id]
 	;
 
 intersect_key
-	:	{(validateSoftKeyword("intersect"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.INTERSECT))}?=>  id=IDENTIFIER
 		->	INTERSECT[$id]
 	;
 
 except_key
-	:	{(validateSoftKeyword("except"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.EXCEPT))}?=>  id=IDENTIFIER
 		->	EXCEPT[$id]
 	;
 
 all_key
-	:	{(validateSoftKeyword("all"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.ALL))}?=>  id=IDENTIFIER
 		->	ALL[$id]
 	;
 
 ascending_key
-	:	{(validateSoftKeyword("ascending") || validateSoftKeyword("asc"))}?=>  IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.ASCENDING) || validateSoftKeyword(SoftKeywords.ASC))}?=>  IDENTIFIER
 	;
 
 descending_key
-	:	{(validateSoftKeyword("descending") || validateSoftKeyword("desc"))}?=>  IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.DESCENDING) || validateSoftKeyword(SoftKeywords.DESC))}?=>  IDENTIFIER
 	;
 
 collate_key
-	:	{(validateSoftKeyword("collate"))}?=>  IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.COLLATE))}?=>  IDENTIFIER
 	;
 
 order_by_key
 @init{
 	String text = "";
-}	:	{(validateSoftKeyword("order") && validateLT(2, "by"))}?=>  id=IDENTIFIER IDENTIFIER {text = $text;}
+}	:	{(validateSoftKeyword(SoftKeywords.ORDER) && validateLT(2, SoftKeywords.BY))}?=>  id=IDENTIFIER IDENTIFIER {text = $text;}
 		->	ORDER_BY[$id]
 	;
 
 group_by_key
 @init{
 	String text = "";
-}	:	{(validateSoftKeyword("group") && validateLT(2, "by"))}?=>  id=IDENTIFIER IDENTIFIER {text = $text;}
+}	:	{(validateSoftKeyword(SoftKeywords.GROUP) && validateLT(2, SoftKeywords.BY))}?=>  id=IDENTIFIER IDENTIFIER {text = $text;}
 		->	GROUP_BY[$id]
 	;
 
 from_key
-	:	{(validateSoftKeyword("from"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.FROM))}?=>  id=IDENTIFIER
         	->	FROM[$id]
 	;
\ No newline at end of file
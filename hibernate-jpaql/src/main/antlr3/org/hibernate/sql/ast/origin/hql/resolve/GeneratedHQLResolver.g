@@ -62,6 +62,10 @@ import org.hibernate.sql.ast.origin.hql.resolve.path.PathedPropertyReferenceSour
         throw new UnsupportedOperationException( "must be overridden!" );
     }
 
+    protected void normalizePersisterReference(Tree alias) {
+        throw new UnsupportedOperationException( "must be overridden!" );
+	}
+
     protected PathedPropertyReferenceSource normalizeUnqualifiedRoot(Tree identifier382) {
         throw new UnsupportedOperationException( "must be overridden!" );
 	}
@@ -113,14 +117,20 @@ import org.hibernate.sql.ast.origin.hql.resolve.path.PathedPropertyReferenceSour
 	protected void popStrategy(){
         throw new UnsupportedOperationException( "must be overridden!" );
 	}	
+
+	protected void finalizeTableSpaces(){
+        throw new UnsupportedOperationException( "must be overridden!" );
+	}
 }
 
 filterStatement[String collectionRole]
+@after	{	finalizeTableSpaces();	}
 	:	^(QUERY ^(QUERY_SPEC FILTER 
 				selectClause? whereClause? ( groupByClause havingClause?)? orderByClause?))
 	;
 
 statement
+@after	{	finalizeTableSpaces();	}
 	:	updateStatementSet
 	|	deleteStatementSet
 	|	insertStatementSet
@@ -346,6 +356,7 @@ valueExpressionPrimary
 	|	propertyReference
 	|	^(SUB_QUERY queryStatementSet)
 	|	ALIAS_REF //ID COLUMN, full property column list 
+	{	normalizePersisterReference( $ALIAS_REF );	}
 	|	^(DOT_CLASS path) // crazy
 	|	^(JAVA_CONSTANT path) //It will generate at SQL a parameter element (?) -> 'cos we do not need to care about char escaping
 	|	^(PATH propertyReferencePath)
@@ -578,11 +589,17 @@ propertyReference
 	;
 
 propertyReferencePath
-	: 	{isUnqualifiedPropertyReference()}? unqualifiedPropertyReference
+	:	{(isPersisterReferenceAlias())}?=> persisterReference
+	| 	{isUnqualifiedPropertyReference()}? unqualifiedPropertyReference
 	|	pathedPropertyReference
     |	terminalIndexOperation
 	;
 
+persisterReference
+	:	IDENTIFIER
+	{	normalizePersisterReference( $IDENTIFIER );	}
+	;
+
 unqualifiedPropertyReference returns [PathedPropertyReferenceSource propertyReferenceSource]
 	:	IDENTIFIER
 	{	$propertyReferenceSource = normalizeUnqualifiedPropertyReference( $IDENTIFIER ); }
@@ -40,6 +40,7 @@ options {
 package org.hibernate.sql.ast.origin.ordering;
 
 import org.hibernate.sql.Template;
+import org.hibernate.sql.ast.origin.hql.parse.SoftKeywords;
 }
 
 @parser::members {
@@ -90,21 +91,16 @@ import org.hibernate.sql.Template;
         throw new UnsupportedOperationException( "must be overridden!" );
     }
 
-    private boolean validateSoftKeyword(String text) {
-		return validateLT(1, text);
+    private boolean validateSoftKeyword(int softKeyword) {
+		return validateLT(1, softKeyword);
 	}
 
-	private boolean validateLT(int offset, String text) {
-		String text2Validate = retrieveLT( offset );
-		return text2Validate == null ? false : text2Validate.equalsIgnoreCase( text );
-	}
-
-	private String retrieveLT(int offset) {
+	private boolean validateLT(int offset, int softKeyword) {
       	if (null == input) {
-      		return null;
+      		return false;
       	}
 		Token token = input.LT(offset);
-		return token == null ? null : token.getText();
+		return token == null ? false : SoftKeywords.of( token ) == softKeyword;
 	}
 
     public Boolean shouldFlattenTuplesInOrderBy() {
@@ -410,7 +406,7 @@ collationSpecification!
     ;
 
 collateKeyword
-    : {(validateSoftKeyword("collate"))}?=>  id=IDENTIFIER
+    : {(validateSoftKeyword(SoftKeywords.COLLATE))}?=>  id=IDENTIFIER
         -> COLLATE[$id]
     ;
 
@@ -438,174 +434,174 @@ orderingSpecification!
 // ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
 
 abs_keyword
-	:	{(validateSoftKeyword("abs"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.ABS))}?=>  id=IDENTIFIER
 		->	ABS[$id]
 	;
 
 as_keyword
-	:	{(validateSoftKeyword("as"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.AS))}?=>  id=IDENTIFIER
 		->	AS[$id]
 	;
 
 ascending_keyword :
-    {(validateSoftKeyword("ascending") || validateSoftKeyword("asc"))}?=>  IDENTIFIER
+    {(validateSoftKeyword(SoftKeywords.ASCENDING) || validateSoftKeyword(SoftKeywords.ASC))}?=>  IDENTIFIER
 ;
 
 bit_length_keyword
-	:	{(validateSoftKeyword("bit_length"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.BIT_LENGTH))}?=>  id=IDENTIFIER
 		->	BIT_LENGTH[$id]
 	;
 
 both_keyword
-	:	{(validateSoftKeyword("both"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.BOTH))}?=>  id=IDENTIFIER
 		->	BOTH[$id]
 	;
 
 cast_keyword
-	:	{(validateSoftKeyword("cast"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.CAST))}?=>  id=IDENTIFIER
 		->	CAST[$id]
 	;
 
 character_length_keyword
-	:	{(validateSoftKeyword("character_length") || validateSoftKeyword("char_length"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.CHARACTER_LENGTH) || validateSoftKeyword(SoftKeywords.CHAR_LENGTH))}?=>  id=IDENTIFIER
 		->	CHARACTER_LENGTH[$id]
 	;
 
 concat_keyword
-	:	{(validateSoftKeyword("concat"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.CONCAT))}?=>  id=IDENTIFIER
 		->	CONCAT[$id]
 	;
 
 current_date_keyword
-	:	{(validateSoftKeyword("current_date"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.CURRENT_DATE))}?=>  id=IDENTIFIER
 		->	CURRENT_DATE[$id]
 	;
 
 current_time_keyword
-	:	{(validateSoftKeyword("current_time"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.CURRENT_TIME))}?=>  id=IDENTIFIER
 		->	CURRENT_TIME[$id]
 	;
 
 current_timestamp_keyword
-	:	{(validateSoftKeyword("current_timestamp"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.CURRENT_TIMESTAMP))}?=>  id=IDENTIFIER
 		->	CURRENT_TIMESTAMP[$id]
 	;
 
 day_keyword
-	:	{(validateSoftKeyword("day"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.DAY))}?=>  id=IDENTIFIER
 		->	DAY[$id]
 	;
 
 descending_keyword :
-    {(validateSoftKeyword("descending") || validateSoftKeyword("desc"))}?=>  IDENTIFIER
+    {(validateSoftKeyword(SoftKeywords.DESCENDING) || validateSoftKeyword(SoftKeywords.DESC))}?=>  IDENTIFIER
 ;
 
 extract_keyword
-	:	{(validateSoftKeyword("extract"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.EXTRACT))}?=>  id=IDENTIFIER
 		->	EXTRACT[$id]
 	;
 
 from_keyword
-	:	{(validateSoftKeyword("from"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.FROM))}?=>  id=IDENTIFIER
 		->	FROM[$id]
 	;
 
 hour_keyword
-	:	{(validateSoftKeyword("hour"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.HOUR))}?=>  id=IDENTIFIER
 		->	HOUR[$id]
 	;
 
 in_keyword
-	:	{(validateSoftKeyword("in"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.IN))}?=>  id=IDENTIFIER
 		->	IN[$id]
 	;
 leading_keyword
-	:	{(validateSoftKeyword("leading"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.LEADING))}?=>  id=IDENTIFIER
 		->	LEADING[$id]
 	;
 
 length_keyword
-	:	{(validateSoftKeyword("length"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.LENGTH))}?=>  id=IDENTIFIER
 		->	LENGTH[$id]
 	;
 
 locate_keyword
-	:	{(validateSoftKeyword("locate"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.LOCATE))}?=>  id=IDENTIFIER
 		->	LOCATE[$id]
 	;
 
 lower_keyword
-	:	{(validateSoftKeyword("lower"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.LOWER))}?=>  id=IDENTIFIER
 		->	LOWER[$id]
 	;
 
 minute_keyword
-	:	{(validateSoftKeyword("minute"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.MINUTE))}?=>  id=IDENTIFIER
 		->	MINUTE[$id]
 	;
 
 mod_keyword
-	:	{(validateSoftKeyword("mod"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.MOD))}?=>  id=IDENTIFIER
 		->	MOD[$id]
 	;
 
 month_keyword
-	:	{(validateSoftKeyword("month"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.MONTH))}?=>  id=IDENTIFIER
 		->	MONTH[$id]
 	;
 
 octet_length_keyword
-	:	{(validateSoftKeyword("octet_length"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.OCTET_LENGTH))}?=>  id=IDENTIFIER
 		->	OCTET_LENGTH[$id]
 	;
 
 position_keyword
-	:	{(validateSoftKeyword("position"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.POSITION))}?=>  id=IDENTIFIER
 		->	POSITION[$id]
 	;
 
 second_keyword
-	:	{(validateSoftKeyword("second"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.SECOND))}?=>  id=IDENTIFIER
 		->	SECOND[$id]
 	;
 
 sqrt_keyword
-	:	{(validateSoftKeyword("sqrt"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.SQRT))}?=>  id=IDENTIFIER
 		->	SQRT[$id]
 	;
 
 substring_keyword
-	:	{(validateSoftKeyword("substring"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.SUBSTRING))}?=>  id=IDENTIFIER
 		->	SUBSTRING[$id]
 	;
 
 timezone_hour_keyword
-	:	{(validateSoftKeyword("timezone_hour"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.TIMEZONE_HOUR))}?=>  id=IDENTIFIER
 		->	TIMEZONE_HOUR[$id]
 	;
 
 timezone_minute_keyword
-	:	{(validateSoftKeyword("timezone_minute"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.TIMEZONE_MINUTE))}?=>  id=IDENTIFIER
 		->	TIMEZONE_MINUTE[$id]
 	;
 
 trailing_keyword
-	:	{(validateSoftKeyword("trailing"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.TRAILING))}?=>  id=IDENTIFIER
 		->	TRAILING[$id]
 	;
 
 trim_keyword
-	:	{(validateSoftKeyword("trim"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.TRIM))}?=>  id=IDENTIFIER
 		->	TRIM[$id]
 	;
 
 upper_keyword
-	:	{(validateSoftKeyword("upper"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.UPPER))}?=>  id=IDENTIFIER
 		->	UPPER[$id]
 	;
 
 year_keyword
-	:	{(validateSoftKeyword("year"))}?=>  id=IDENTIFIER
+	:	{(validateSoftKeyword(SoftKeywords.YEAR))}?=>  id=IDENTIFIER
 		->	YEAR[$id]
 	;
 
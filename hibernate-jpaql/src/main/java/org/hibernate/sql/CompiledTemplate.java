@@ -0,0 +1,147 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2008, Red Hat Middleware LLC or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Middleware LLC.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ *
+ */
+package org.hibernate.sql;
+
+/**
+ * A template (typically a rendered formula or where fragment, see {@link Template}) in which the positions of the
+ * alias placeholder have been located up front, so that it can be repeatedly qualified with different aliases
+ * without searching the template text each time.
+ * <p/>
+ * Instances are immutable.
+ *
+ * @see Template#TEMPLATE
+ */
+public final class CompiledTemplate {
+	private static final int[] NO_OFFSETS = new int[0];
+
+	private final String template;
+	private final String placeholder;
+	private final int[] placeholderOffsets;
+
+	private CompiledTemplate(String template, String placeholder, int[] placeholderOffsets) {
+		this.template = template;
+		this.placeholder = placeholder;
+		this.placeholderOffsets = placeholderOffsets;
+	}
+
+	/**
+	 * Compile a template containing {@link Template#TEMPLATE} placeholders.
+	 *
+	 * @param template The template text.
+	 *
+	 * @return The compiled template.
+	 */
+	public static CompiledTemplate compile(String template) {
+		return compile( template, Template.TEMPLATE );
+	}
+
+	/**
+	 * Compile a template containing the given placeholder.
+	 *
+	 * @param template The template text.
+	 * @param placeholder The placeholder to be replaced by the alias.
+	 *
+	 * @return The compiled template.
+	 */
+	public static CompiledTemplate compile(String template, String placeholder) {
+		if ( placeholder.length() == 0 ) {
+			throw new IllegalArgumentException( "placeholder cannot be empty" );
+		}
+		int count = 0;
+		int loc = template.indexOf( placeholder );
+		while ( loc >= 0 ) {
+			count++;
+			loc = template.indexOf( placeholder, loc + placeholder.length() );
+		}
+
+		int[] offsets = count == 0 ? NO_OFFSETS : new int[count];
+		int i = 0;
+		loc = template.indexOf( placeholder );
+		while ( loc >= 0 ) {
+			offsets[i++] = loc;
+			loc = template.indexOf( placeholder, loc + placeholder.length() );
+		}
+		return new CompiledTemplate( template, placeholder, offsets );
+	}
+
+	/**
+	 * Render this template, replacing each placeholder with the given alias.  Same result as
+	 * {@link org.hibernate.util.StringHelper#replace(String, String, String)} on the template text.
+	 *
+	 * @param alias The alias to apply.
+	 *
+	 * @return The rendered fragment.
+	 */
+	public String render(String alias) {
+		if ( placeholderOffsets.length == 0 ) {
+			return template;
+		}
+		final String replacement = String.valueOf( alias );
+		final int length = template.length()
+				+ placeholderOffsets.length * ( replacement.length() - placeholder.length() );
+		StringBuilder buf = new StringBuilder( length );
+		int position = 0;
+		for ( int offset : placeholderOffsets ) {
+			buf.append( template, position, offset ).append( replacement );
+			position = offset + placeholder.length();
+		}
+		buf.append( template, position, template.length() );
+		return buf.toString();
+	}
+
+	public String getTemplate() {
+		return template;
+	}
+
+	public String getPlaceholder() {
+		return placeholder;
+	}
+
+	public int getPlaceholderCount() {
+		return placeholderOffsets.length;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if ( this == o ) {
+			return true;
+		}
+		if ( !( o instanceof CompiledTemplate ) ) {
+			return false;
+		}
+		CompiledTemplate that = ( CompiledTemplate ) o;
+		return template.equals( that.template ) && placeholder.equals( that.placeholder );
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * template.hashCode() + placeholder.hashCode();
+	}
+
+	@Override
+	public String toString() {
+		return template;
+	}
+}
@@ -68,6 +68,10 @@ public class InFragment {
 		return setColumn(this.columnName);
 	}
 
+	public InFragment setFormula(String alias, CompiledTemplate formulaTemplate) {
+		return setColumn( formulaTemplate.render( alias ) );
+	}
+
 	public String toFragmentString() {
 		if ( values.size()==0 ) return "1=2";
 		StringBuffer buf = new StringBuffer( values.size() * 5 );
@@ -0,0 +1,235 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2008, Red Hat Middleware LLC or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Middleware LLC.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ *
+ */
+package org.hibernate.sql;
+
+import java.lang.reflect.Field;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.function.SQLFunction;
+import org.hibernate.dialect.function.SQLFunctionRegistry;
+import org.hibernate.sql.ast.util.CaseInsensitiveWords;
+import org.hibernate.sql.ast.util.WeakIdentityMap;
+
+/**
+ * Classifies the words found in where and formula fragments (see {@link Template}) as keywords, functions or plain
+ * identifiers.
+ * <p/>
+ * All the known words (the generic SQL keywords, the dialect's keywords and the dialect's and user-defined functions)
+ * are folded into a single {@link CaseInsensitiveWords} table, built once, so that a word is classified with a
+ * single probe directly against the characters of the fragment; no lower-cased copy of the word is needed, and the
+ * matching does not depend on the default locale.
+ * <p/>
+ * Like the sets it is built from, only lower-case names are ever matched.
+ */
+public final class KeywordClassifier {
+	/**
+	 * Not a known word; typically a column reference.
+	 */
+	public static final int IDENTIFIER = CaseInsensitiveWords.NOT_FOUND;
+	/**
+	 * One of the generic SQL keywords.
+	 */
+	public static final int KEYWORD = 1;
+	/**
+	 * A keyword introducing a table reference (<tt>from</tt>, <tt>join</tt>).
+	 */
+	public static final int BEFORE_TABLE_KEYWORD = 2;
+	/**
+	 * A keyword used within function calls (<tt>leading</tt>, <tt>case</tt>, etc).
+	 */
+	public static final int FUNCTION_KEYWORD = 4;
+	/**
+	 * A keyword reserved by the dialect.
+	 */
+	public static final int DIALECT_KEYWORD = 8;
+	/**
+	 * The name of a dialect or user-defined function.
+	 */
+	public static final int FUNCTION = 16;
+
+	private static final Logger log = LoggerFactory.getLogger( KeywordClassifier.class );
+
+	private static final WeakIdentityMap<Dialect,KeywordClassifier> classifiersByDialect
+			= new WeakIdentityMap<Dialect,KeywordClassifier>();
+	private static final WeakIdentityMap<SQLFunctionRegistry,KeywordClassifier> classifiersByRegistry
+			= new WeakIdentityMap<SQLFunctionRegistry,KeywordClassifier>();
+
+	/**
+	 * The registry's user-defined functions; the registry has no other way of listing them.  Null if they cannot be
+	 * read, in which case the registry must be asked about each word.
+	 */
+	private static final Field USER_FUNCTIONS = locateUserFunctionsField();
+
+	private static Field locateUserFunctionsField() {
+		try {
+			final Field field = SQLFunctionRegistry.class.getDeclaredField( "userFunctions" );
+			field.setAccessible( true );
+			return field;
+		}
+		catch ( Exception e ) {
+			log.warn( "unable to list user-defined SQL functions; they will be looked up word by word : {}", e.toString() );
+			return null;
+		}
+	}
+
+	/**
+	 * Locate the classifier for the given dialect, not knowing about any user-defined functions.  Classifiers are
+	 * built once per dialect.
+	 *
+	 * @param dialect The dialect.
+	 *
+	 * @return The classifier.
+	 */
+	public static KeywordClassifier forDialect(Dialect dialect) {
+		KeywordClassifier classifier = classifiersByDialect.get( dialect );
+		if ( classifier == null ) {
+			classifier = classifiersByDialect.putIfAbsent(
+					dialect,
+					new KeywordClassifier( dialect, Collections.<String,SQLFunction>emptyMap() )
+			);
+		}
+		return classifier;
+	}
+
+	/**
+	 * Locate the classifier for the given function registry, knowing about its user-defined functions.  A session
+	 * factory has a single registry, so classifiers are built once per session factory.
+	 * <p/>
+	 * Should the registry not let its user-defined functions be listed, the returned classifier
+	 * {@link #knowsUserFunctions() does not know them}, and the registry has to be asked about the words the
+	 * classifier does not recognize.
+	 *
+	 * @param dialect The dialect of the registry.
+	 * @param functionRegistry The function registry.
+	 *
+	 * @return The classifier.
+	 */
+	public static KeywordClassifier forFunctionRegistry(Dialect dialect, SQLFunctionRegistry functionRegistry) {
+		KeywordClassifier classifier = classifiersByRegistry.get( functionRegistry );
+		if ( classifier == null ) {
+			final Map<String,?> userFunctions = extractUserFunctions( functionRegistry );
+			classifier = classifiersByRegistry.putIfAbsent(
+					functionRegistry,
+					userFunctions == null
+							? new KeywordClassifier( dialect, Collections.<String,SQLFunction>emptyMap(), false )
+							: new KeywordClassifier( dialect, userFunctions )
+			);
+		}
+		return classifier;
+	}
+
+	@SuppressWarnings({ "unchecked" })
+	private static Map<String,?> extractUserFunctions(SQLFunctionRegistry functionRegistry) {
+		if ( USER_FUNCTIONS == null ) {
+			return null;
+		}
+		try {
+			return ( Map<String,?> ) USER_FUNCTIONS.get( functionRegistry );
+		}
+		catch ( IllegalAccessException e ) {
+			return null;
+		}
+	}
+
+	private final CaseInsensitiveWords words;
+	private final boolean knowsUserFunctions;
+
+	/**
+	 * Builds a classifier; meant to be done once per session factory.
+	 *
+	 * @param dialect The dialect.
+	 * @param userFunctions The user-defined SQL functions, keyed by name.
+	 */
+	public KeywordClassifier(Dialect dialect, Map<String,?> userFunctions) {
+		this( dialect, userFunctions, true );
+	}
+
+	private KeywordClassifier(Dialect dialect, Map<String,?> userFunctions, boolean knowsUserFunctions) {
+		Map<String,Integer> collected = new HashMap<String,Integer>();
+		collect( collected, Template.KEYWORDS, KEYWORD );
+		collect( collected, Template.BEFORE_TABLE_KEYWORDS, BEFORE_TABLE_KEYWORD );
+		collect( collected, Template.FUNCTION_KEYWORDS, FUNCTION_KEYWORD );
+		collect( collected, dialect.getKeywords(), DIALECT_KEYWORD );
+		collect( collected, dialect.getFunctions().keySet(), FUNCTION );
+		collect( collected, userFunctions.keySet(), FUNCTION );
+		this.words = new CaseInsensitiveWords( collected );
+		this.knowsUserFunctions = knowsUserFunctions;
+	}
+
+	private static void collect(Map<String,Integer> collected, Collection<?> names, int classification) {
+		Iterator<?> itr = names.iterator();
+		while ( itr.hasNext() ) {
+			final Object name = itr.next();
+			if ( !( name instanceof String ) || !CaseInsensitiveWords.isFolded( ( String ) name ) ) {
+				// lookups are always done with the lower-cased word; such a name could never match
+				continue;
+			}
+			final Integer existing = collected.get( name );
+			collected.put( ( String ) name, existing == null ? classification : existing | classification );
+		}
+	}
+
+	/**
+	 * Classify the word found in the given character range.
+	 *
+	 * @param chars The characters.
+	 * @param start The start of the word.
+	 * @param length The length of the word.
+	 *
+	 * @return The classification bits ({@link #KEYWORD}, {@link #FUNCTION}, ...), or {@link #IDENTIFIER}.
+	 */
+	public int classify(char[] chars, int start, int length) {
+		return words.lookup( chars, start, length );
+	}
+
+	/**
+	 * Classify the given word.
+	 *
+	 * @param word The word.
+	 *
+	 * @return The classification bits ({@link #KEYWORD}, {@link #FUNCTION}, ...), or {@link #IDENTIFIER}.
+	 */
+	public int classify(String word) {
+		return classify( word.toCharArray(), 0, word.length() );
+	}
+
+	/**
+	 * Does this classifier know all the user-defined functions?  If not, words it classifies as
+	 * {@link #IDENTIFIER identifiers} may still name one.
+	 *
+	 * @return True if user-defined functions are classified as {@link #FUNCTION functions}.
+	 */
+	public boolean knowsUserFunctions() {
+		return knowsUserFunctions;
+	}
+}
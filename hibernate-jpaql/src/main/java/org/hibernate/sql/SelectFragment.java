@@ -108,12 +108,25 @@ public class SelectFragment {
 		return this;
 	}
 
+	public SelectFragment addFormulas(String tableAlias, CompiledTemplate[] formulas, String[] formulaAliases) {
+		for ( int i=0; i<formulas.length; i++ ) {
+			if ( formulas[i]!=null ) addFormula( tableAlias, formulas[i], formulaAliases[i] );
+		}
+		return this;
+	}
+
 	public SelectFragment addFormula(String tableAlias, String formula, String formulaAlias) {
 		columns.add( StringHelper.replace(formula, Template.TEMPLATE, tableAlias) );
 		columnAliases.add(formulaAlias);
 		return this;
 	}
 
+	public SelectFragment addFormula(String tableAlias, CompiledTemplate formula, String formulaAlias) {
+		columns.add( formula.render( tableAlias ) );
+		columnAliases.add(formulaAlias);
+		return this;
+	}
+
 	public String toFragmentString() {
 		StringBuffer buf = new StringBuffer( columns.size() * 10 );
 		Iterator iter = columns.iterator();
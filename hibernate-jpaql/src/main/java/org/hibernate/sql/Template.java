@@ -25,14 +25,15 @@
 package org.hibernate.sql;
 
 import java.util.HashSet;
-import java.util.StringTokenizer;
 
 import org.hibernate.dialect.Dialect;
 import org.hibernate.dialect.function.SQLFunctionRegistry;
-import org.hibernate.util.StringHelper;
+import org.hibernate.persister.entity.Queryable;
+import org.hibernate.sql.ast.util.CaseInsensitiveWords;
 import org.hibernate.sql.ast.origin.ordering.ColumnMapper;
+import org.hibernate.sql.ast.origin.ordering.EntityPersisterColumnMapper;
 import org.hibernate.sql.ast.origin.ordering.TranslationContext;
-import org.hibernate.sql.ast.origin.ordering.OrderByFragmentTranslator;
+import org.hibernate.sql.ast.origin.ordering.OrderByTranslationCache;
 import org.hibernate.engine.SessionFactoryImplementor;
 
 /**
@@ -42,9 +43,10 @@ import org.hibernate.engine.SessionFactoryImplementor;
  */
 public final class Template {
 
-	private static final java.util.Set KEYWORDS = new HashSet();
-	private static final java.util.Set BEFORE_TABLE_KEYWORDS = new HashSet();
-	private static final java.util.Set FUNCTION_KEYWORDS = new HashSet();
+	static final java.util.Set KEYWORDS = new HashSet();
+	static final java.util.Set BEFORE_TABLE_KEYWORDS = new HashSet();
+	static final java.util.Set FUNCTION_KEYWORDS = new HashSet();
+	private static final OrderByTranslationCache ORDER_BY_TRANSLATIONS = new OrderByTranslationCache();
 	static {
 		KEYWORDS.add("and");
 		KEYWORDS.add("or");
@@ -100,6 +102,19 @@ public final class Template {
 		return renderWhereStringTemplate(sqlWhereString, TEMPLATE, dialect, functionRegistry);
 	}
 
+	/**
+	 * Same as {@link #renderWhereStringTemplate(String, Dialect, SQLFunctionRegistry)}, but returns the result
+	 * {@link CompiledTemplate compiled}, ready to be repeatedly qualified with aliases.
+	 *
+	 * @param sqlWhereString The where (or formula) fragment from the mapping
+	 * @param dialect The dialect to apply
+	 * @param functionRegistry The registry of all sql functions
+	 * @return The compiled template
+	 */
+	public static CompiledTemplate compileWhereStringTemplate(String sqlWhereString, Dialect dialect, SQLFunctionRegistry functionRegistry) {
+		return CompiledTemplate.compile( renderWhereStringTemplate( sqlWhereString, TEMPLATE, dialect, functionRegistry ) );
+	}
+
 	/**
 	 * Same functionality as {@link #renderWhereStringTemplate(String, String, Dialect, SQLFunctionRegistry)},
 	 * except that a SQLFunctionRegistry is not provided (i.e., only the dialect-defined functions are
@@ -109,7 +124,8 @@ public final class Template {
 	 * @deprecated Only intended for annotations usage; use {@link #renderWhereStringTemplate(String, String, Dialect, SQLFunctionRegistry)} instead
 	 */
 	public static String renderWhereStringTemplate(String sqlWhereString, String placeholder, Dialect dialect) {
-		return renderWhereStringTemplate( sqlWhereString, placeholder, dialect, new SQLFunctionRegistry( dialect, java.util.Collections.EMPTY_MAP ) );
+		// no user-defined functions, so the dialect's classifier knows all there is to know
+		return renderWhereStringTemplate( sqlWhereString, placeholder, dialect, KeywordClassifier.forDialect( dialect ) );
 	}
 
 	/**
@@ -124,54 +140,97 @@ public final class Template {
 	 * @return The rendered sql fragment
 	 */
 	public static String renderWhereStringTemplate(String sqlWhereString, String placeholder, Dialect dialect, SQLFunctionRegistry functionRegistry ) {
-		//TODO: make this a bit nicer
-		String symbols = new StringBuffer()
-			.append("=><!+-*/()',|&`")
-			.append(StringHelper.WHITESPACE)
-			.append( dialect.openQuote() )
-			.append( dialect.closeQuote() )
-			.toString();
-		StringTokenizer tokens = new StringTokenizer(sqlWhereString, symbols, true);
-		
-		StringBuffer result = new StringBuffer();
+		if ( functionRegistry == null ) {
+			return renderWhereStringTemplate( sqlWhereString, placeholder, dialect, KeywordClassifier.forDialect( dialect ) );
+		}
+		final KeywordClassifier classifier = KeywordClassifier.forFunctionRegistry( dialect, functionRegistry );
+		return renderWhereStringTemplate(
+				sqlWhereString,
+				placeholder,
+				dialect,
+				classifier,
+				classifier.knowsUserFunctions() ? null : functionRegistry
+		);
+	}
+
+	/**
+	 * Same functionality as {@link #renderWhereStringTemplate(String, String, Dialect, SQLFunctionRegistry)},
+	 * except that keywords and functions (including any user-defined functions) are recognized by the given
+	 * classifier, typically built once per session factory.
+	 *
+	 * @param sqlWhereString The string into which to interpolate the placeholder value
+	 * @param placeholder The value to be interpolated into the the sqlWhereString
+	 * @param dialect The dialect to apply
+	 * @param classifier The classifier for keywords and sql functions
+	 * @return The rendered sql fragment
+	 */
+	public static String renderWhereStringTemplate(String sqlWhereString, String placeholder, Dialect dialect, KeywordClassifier classifier) {
+		return renderWhereStringTemplate( sqlWhereString, placeholder, dialect, classifier, null );
+	}
+
+	/**
+	 * @param functionRegistry If not null, consulted for words the classifier does not know, as it may hold
+	 * user-defined functions the classifier was not built with.
+	 */
+	private static String renderWhereStringTemplate(
+			String sqlWhereString,
+			String placeholder,
+			Dialect dialect,
+			KeywordClassifier classifier,
+			SQLFunctionRegistry functionRegistry) {
+		// A single pass over the characters, splitting into the same tokens a StringTokenizer would for the symbols
+		// below (each symbol being a token on its own).  Words are classified directly from the character array.
+		final char openQuote = dialect.openQuote();
+		final char closeQuote = dialect.closeQuote();
+		final char[] chars = sqlWhereString.toCharArray();
+		final int length = chars.length;
+
+		StringBuilder result = new StringBuilder( length + 16 * placeholder.length() );
 		boolean quoted = false;
 		boolean quotedIdentifier = false;
 		boolean beforeTable = false;
 		boolean inFromClause = false;
 		boolean afterFromTable = false;
-		
-		boolean hasMore = tokens.hasMoreTokens();
-		String nextToken = hasMore ? tokens.nextToken() : null;
-		while (hasMore) {
-			String token = nextToken;
-			String lcToken = token.toLowerCase();
-			hasMore = tokens.hasMoreTokens();
-			nextToken = hasMore ? tokens.nextToken() : null;
-			
+
+		int position = 0;
+		while ( position < length ) {
+			final int start = position;
+			final char first = chars[start];
+			final boolean symbol = isSymbol( first, openQuote, closeQuote );
+			position++;
+			if ( !symbol ) {
+				while ( position < length && !isSymbol( chars[position], openQuote, closeQuote ) ) {
+					position++;
+				}
+			}
+			final int tokenLength = position - start;
+
+			// the classification of non-symbol tokens is only determined when needed
+			int classification = symbol ? KeywordClassifier.IDENTIFIER : -1;
+
 			boolean isQuoteCharacter = false;
 			
-			if ( !quotedIdentifier && "'".equals(token) ) {
+			if ( !quotedIdentifier && first == '\'' ) {
 				quoted = !quoted;
 				isQuoteCharacter = true;
 			}
-			
+
+			char replacementQuote = 0;
 			if ( !quoted ) {
 				
 				boolean isOpenQuote;
-				if ( "`".equals(token) ) {
+				if ( first == '`' ) {
 					isOpenQuote = !quotedIdentifier;
-					token = lcToken = isOpenQuote ? 
-						new Character( dialect.openQuote() ).toString() :
-						new Character( dialect.closeQuote() ).toString();
+					replacementQuote = isOpenQuote ? openQuote : closeQuote;
 					quotedIdentifier = isOpenQuote;	
 					isQuoteCharacter = true;
 				}
-				else if ( !quotedIdentifier && ( dialect.openQuote()==token.charAt(0) ) ) {
+				else if ( !quotedIdentifier && ( openQuote == first ) ) {
 					isOpenQuote = true;
 					quotedIdentifier = true;	
 					isQuoteCharacter = true;
 				}
-				else if ( quotedIdentifier && ( dialect.closeQuote()==token.charAt(0) ) ) {
+				else if ( quotedIdentifier && ( closeQuote == first ) ) {
 					quotedIdentifier = false;
 					isQuoteCharacter = true;
 					isOpenQuote = false;
@@ -189,54 +248,88 @@ public final class Template {
 			boolean quotedOrWhitespace = quoted || 
 				quotedIdentifier || 
 				isQuoteCharacter || 
-				Character.isWhitespace( token.charAt(0) );
+				Character.isWhitespace( first );
 			
 			if (quotedOrWhitespace) {
-				result.append(token);
-			}
-			else if (beforeTable) {
-				result.append(token);
-				beforeTable = false;
-				afterFromTable = true;
-			}
-			else if (afterFromTable) {
-				if ( !"as".equals(lcToken) ) afterFromTable = false;
-				result.append(token);
-			}
-			else if ( isNamedParameter(token) ) {
-				result.append(token);
-			}
-			else if (
-				isIdentifier(token, dialect) &&
-				!isFunctionOrKeyword(lcToken, nextToken, dialect , functionRegistry)
-			) {
-				result.append(placeholder)
-					.append('.')
-					.append( dialect.quote(token) );
+				if ( replacementQuote != 0 ) {
+					result.append( replacementQuote );
+				}
+				else {
+					result.append( chars, start, tokenLength );
+				}
 			}
 			else {
-				if ( BEFORE_TABLE_KEYWORDS.contains(lcToken) ) {
-					beforeTable = true;
-					inFromClause = true;
+				if ( classification < 0 ) {
+					classification = classifier.classify( chars, start, tokenLength );
+				}
+
+				if (beforeTable) {
+					result.append( chars, start, tokenLength );
+					beforeTable = false;
+					afterFromTable = true;
+				}
+				else if (afterFromTable) {
+					if ( !isAs( chars, start, tokenLength ) ) afterFromTable = false;
+					result.append( chars, start, tokenLength );
+				}
+				else if ( first == ':' ) {
+					// a named parameter
+					result.append( chars, start, tokenLength );
 				}
-				else if ( inFromClause && ",".equals(lcToken) ) {
-					beforeTable = true;
+				else if (
+					!symbol &&
+					isIdentifier( chars, start, tokenLength ) &&
+					!isFunctionOrKeyword( chars, start, tokenLength, classification, position < length && chars[position] == '(', functionRegistry )
+				) {
+					// no need for dialect.quote(), the token cannot start with a back-tick here
+					result.append(placeholder)
+						.append('.')
+						.append( chars, start, tokenLength );
+				}
+				else {
+					if ( ( classification & KeywordClassifier.BEFORE_TABLE_KEYWORD ) != 0 ) {
+						beforeTable = true;
+						inFromClause = true;
+					}
+					else if ( inFromClause && first == ',' ) {
+						beforeTable = true;
+					}
+					result.append( chars, start, tokenLength );
 				}
-				result.append(token);
 			}
 			
-			if ( //Yuck:
-					inFromClause && 
-					KEYWORDS.contains(lcToken) && //"as" is not in KEYWORDS
-					!BEFORE_TABLE_KEYWORDS.contains(lcToken)
-			) { 
-				inFromClause = false;
+			if ( inFromClause ) {
+				if ( classification < 0 ) {
+					classification = classifier.classify( chars, start, tokenLength );
+				}
+				if ( //Yuck:
+						( classification & KeywordClassifier.KEYWORD ) != 0 && //"as" is not in KEYWORDS
+						( classification & KeywordClassifier.BEFORE_TABLE_KEYWORD ) == 0
+				) {
+					inFromClause = false;
+				}
 			}
 
 		}
 		return result.toString();
 	}
 
+	/**
+	 * Is the given character one of the symbols delimiting (and forming single character) tokens in where and
+	 * formula fragments?
+	 */
+	private static boolean isSymbol(char c, char openQuote, char closeQuote) {
+		switch ( c ) {
+			case '=': case '>': case '<': case '!': case '+': case '-': case '*': case '/':
+			case '(': case ')': case '\'': case ',': case '|': case '&': case '`':
+			// StringHelper.WHITESPACE
+			case ' ': case '\n': case '\r': case '\f': case '\t':
+				return true;
+			default:
+				return c == openQuote || c == closeQuote;
+		}
+	}
+
 	public static class NoOpColumnMapper implements ColumnMapper {
 		public static final NoOpColumnMapper INSTANCE = new NoOpColumnMapper();
 		public String[] map(String reference) {
@@ -262,6 +355,7 @@ public final class Template {
 			SQLFunctionRegistry functionRegistry) {
 		return renderOrderByStringTemplate(
 				orderByFragment,
+				NoOpColumnMapper.class.getName(),
 				NoOpColumnMapper.INSTANCE,
 				null,
 				dialect,
@@ -273,6 +367,9 @@ public final class Template {
 	 * Performs order-by template rendering allowing {@link ColumnMapper column mapping}.  An <tt>ORDER BY</tt> template
 	 * has all column references "qualified" with a placeholder identified by {@link Template#TEMPLATE} which can later
 	 * be used to easily inject the SQL alias.
+	 * <p/>
+	 * The translation is not cached, as nothing tells what the column mapper maps against; see
+	 * {@link #renderOrderByStringTemplate(String,String,ColumnMapper,SessionFactoryImplementor,Dialect,SQLFunctionRegistry)}.
 	 *
 	 * @param orderByFragment The order-by fragment to render.
 	 * @param columnMapper The column mapping strategy to use.
@@ -284,6 +381,35 @@ public final class Template {
 	 */
 	public static String renderOrderByStringTemplate(
 			String orderByFragment,
+			ColumnMapper columnMapper,
+			SessionFactoryImplementor sessionFactory,
+			Dialect dialect,
+			SQLFunctionRegistry functionRegistry) {
+		return renderOrderByStringTemplate( orderByFragment, null, columnMapper, sessionFactory, dialect, functionRegistry );
+	}
+
+	/**
+	 * Performs order-by template rendering allowing {@link ColumnMapper column mapping}, as
+	 * {@link #renderOrderByStringTemplate(String,ColumnMapper,SessionFactoryImplementor,Dialect,SQLFunctionRegistry)}
+	 * does.
+	 * <p/>
+	 * Translations are cached by fragment, mapping name and dialect, so that a fragment shared by many collections
+	 * of the same elements is only translated once.  A column mapper which is not deterministic must implement
+	 * {@link org.hibernate.sql.ast.origin.ordering.VolatileColumnMapper} to opt out.
+	 *
+	 * @param orderByFragment The order-by fragment to render.
+	 * @param mappingName What the column mapper maps references against: the collection role, or the entity name
+	 * for entity elements; null if the translation should not be cached.
+	 * @param columnMapper The column mapping strategy to use.
+	 * @param sessionFactory The session factory.
+	 * @param dialect The SQL dialect being used.
+	 * @param functionRegistry The SQL function registry
+	 *
+	 * @return The rendered <tt>ORDER BY</tt> template.
+	 */
+	public static String renderOrderByStringTemplate(
+			String orderByFragment,
+			String mappingName,
 			final ColumnMapper columnMapper,
 			final SessionFactoryImplementor sessionFactory,
 			final Dialect dialect,
@@ -306,27 +432,78 @@ public final class Template {
 			}
 		};
 
-		OrderByFragmentTranslator translator = new OrderByFragmentTranslator( context );
-		return translator.render( orderByFragment );
+		return ORDER_BY_TRANSLATIONS.render( orderByFragment, mappingName, context );
+	}
+
+	/**
+	 * Performs order-by template rendering for a collection of entities, mapping property references against the
+	 * element persister.  Unlike an arbitrary {@link ColumnMapper}, the persister can tell property references from
+	 * column names without attempting (and failing) to map each identifier.  Translations are cached per element
+	 * entity, so they are shared by all the collections of that entity.
+	 *
+	 * @param orderByFragment The order-by fragment to render.
+	 * @param elementPersister The persister of the collection's elements.
+	 * @param dialect The SQL dialect being used.
+	 * @param functionRegistry The SQL function registry
+	 *
+	 * @return The rendered <tt>ORDER BY</tt> template.
+	 */
+	public static String renderOrderByStringTemplate(
+			String orderByFragment,
+			Queryable elementPersister,
+			Dialect dialect,
+			SQLFunctionRegistry functionRegistry) {
+		return renderOrderByStringTemplate(
+				orderByFragment,
+				elementPersister.getEntityName(),
+				new EntityPersisterColumnMapper( elementPersister ),
+				elementPersister.getFactory(),
+				dialect,
+				functionRegistry
+		);
+	}
+
+	private static boolean isFunctionOrKeyword(
+			char[] chars,
+			int start,
+			int length,
+			int classification,
+			boolean followedByOpenParen,
+			SQLFunctionRegistry functionRegistry) {
+		return followedByOpenParen ||
+			classification != KeywordClassifier.IDENTIFIER ||
+			( functionRegistry != null && functionRegistry.hasFunction( fold( chars, start, length ) ) );
 	}
 
-	private static boolean isNamedParameter(String token) {
-		return token.startsWith(":");
+	private static String fold(char[] chars, int start, int length) {
+		final char[] folded = new char[length];
+		for ( int i = 0; i < length; i++ ) {
+			folded[i] = CaseInsensitiveWords.fold( chars[start + i] );
+		}
+		return new String( folded );
 	}
 
-	private static boolean isFunctionOrKeyword(String lcToken, String nextToken, Dialect dialect, SQLFunctionRegistry functionRegistry) {
-		return "(".equals(nextToken) ||
-			KEYWORDS.contains(lcToken) ||
-			functionRegistry.hasFunction(lcToken) ||
-			dialect.getKeywords().contains(lcToken) ||
-			FUNCTION_KEYWORDS.contains(lcToken);
+	private static boolean isAs(char[] chars, int start, int length) {
+		return length == 2
+				&& ( chars[start] == 'a' || chars[start] == 'A' )
+				&& ( chars[start + 1] == 's' || chars[start + 1] == 'S' );
 	}
 
-	private static boolean isIdentifier(String token, Dialect dialect) {
-		return token.charAt(0)=='`' || ( //allow any identifier quoted with backtick
-			Character.isLetter( token.charAt(0) ) && //only recognizes identifiers beginning with a letter
-			token.indexOf('.') < 0
-		);
+	private static boolean isIdentifier(char[] chars, int start, int length) {
+		if ( chars[start] == '`' ) {
+			//allow any identifier quoted with backtick
+			return true;
+		}
+		if ( !Character.isLetter( chars[start] ) ) {
+			//only recognizes identifiers beginning with a letter
+			return false;
+		}
+		for ( int i = start + 1; i < start + length; i++ ) {
+			if ( chars[i] == '.' ) {
+				return false;
+			}
+		}
+		return true;
 	}
 
 	
@@ -23,6 +23,11 @@
  */
 package org.hibernate.sql.ast.alias;
 
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -35,24 +40,47 @@ import org.hibernate.util.StringHelper;
  * Defines a termplated implementation of the {@link TableAliasGenerator} contract.
  * <p/>
  * The variance is in the subclass implementation of the {@link #truncateAliasBase} method.
+ * <p/>
+ * The cleaned and truncated alias bases only depend on the source alias (or persister name), the mapped table count
+ * and the width of the uniqueing value, so they are cached per {@link Dialect} (and generator type); generating an
+ * alias root then comes down to appending the uniqueing suffix to a cached base.
  *
  * @author Steve Ebersole
  */
 public abstract class AbstractTableAliasGeneratorTemplate implements TableAliasGenerator {
 	private static final Logger log = LoggerFactory.getLogger( TableAliasGenerator.class );
 
+	/**
+	 * The largest number of digits an int uniqueing value can have.
+	 */
+	private static final int MAX_UNIQUEING_VALUE_WIDTH = 10;
+
+	private static final Map<Dialect,ConcurrentMap<AliasBaseKey,String[]>> ALIAS_BASES_BY_DIALECT =
+			new WeakHashMap<Dialect,ConcurrentMap<AliasBaseKey,String[]>>();
+
 	private final Dialect dialect;
+	private final ConcurrentMap<AliasBaseKey,String[]> aliasBases;
 	private int uniqueingValue = 0;
 
 	protected AbstractTableAliasGeneratorTemplate(Dialect dialect) {
 		this.dialect = dialect;
+		this.aliasBases = locateAliasBases( dialect );
+	}
+
+	private static synchronized ConcurrentMap<AliasBaseKey,String[]> locateAliasBases(Dialect dialect) {
+		ConcurrentMap<AliasBaseKey,String[]> aliasBases = ALIAS_BASES_BY_DIALECT.get( dialect );
+		if ( aliasBases == null ) {
+			aliasBases = new ConcurrentHashMap<AliasBaseKey,String[]>();
+			ALIAS_BASES_BY_DIALECT.put( dialect, aliasBases );
+		}
+		return aliasBases;
 	}
 
 	/**
 	 * Truncate down the base of the sql alias root to the 'totalAllowableSizeOfAliasBase'.
 	 * <p/>
 	 * This abstract method provides the variance in the templating routine; different implementations will
-	 * define this extact behavior differently.
+	 * define this extact behavior differently.  The result must only depend on the arguments, as it is cached.
 	 *
 	 * @param base The base for the alias root.
 	 * @param totalAllowableSizeOfAliasBase The total allowable size of the base after truncating.
@@ -61,11 +89,19 @@ public abstract class AbstractTableAliasGeneratorTemplate implements TableAliasG
 	 */
 	protected abstract String truncateAliasBase(String base, int totalAllowableSizeOfAliasBase);
 
+	/**
+	 * Reset the uniqueing value, so that the next alias root generated is the same as the first one generated by a
+	 * new instance.  Used when the generator is reused for another statement.
+	 */
+	public void reset() {
+		uniqueingValue = 0;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
 	public final TableAliasRoot generateSqlAliasRoot(Queryable persister, String sourceAlias) {
-		log.trace( "Generating SQL alias root (entity) : " +  sourceAlias );
+		log.trace( "Generating SQL alias root (entity) : {}", sourceAlias );
 		String base = sourceAlias;
 		if ( ImplicitAliasGenerator.isImplicitAlias( sourceAlias ) ) {
 			base = persister.getMappedTableMetadata().getSqlAliasRootBase();
@@ -77,7 +113,7 @@ public abstract class AbstractTableAliasGeneratorTemplate implements TableAliasG
 	 * {@inheritDoc}
 	 */
 	public final TableAliasRoot generateSqlAliasRoot(QueryableCollection persister, String sourceAlias) {
-		log.trace( "Generating SQL alias root (collection) : " +  sourceAlias );
+		log.trace( "Generating SQL alias root (collection) : {}", sourceAlias );
 		String base = sourceAlias;
 		if ( ImplicitAliasGenerator.isImplicitAlias( sourceAlias ) ) {
 			base = StringHelper.unqualify( persister.getName() ).toLowerCase();
@@ -99,10 +135,30 @@ public abstract class AbstractTableAliasGeneratorTemplate implements TableAliasG
 	}
 
 	protected final TableAliasRoot generateSqlAliasRoot(String base, int tableCount) {
-		String source = base;
-		base = cleanBase( base );
-		base = ensureAliasCapacity( base, tableCount );
-		return new TableAliasRoot( source, base );
+		final int value = uniqueInteger();
+		return new TableAliasRoot(
+				base,
+				locateAliasBase( base, tableCount, AliasSuffixes.width( value + 1 ) ) + AliasSuffixes.forValue( value )
+		);
+	}
+
+	private String locateAliasBase(String base, int tableCount, int uniqueingValueWidth) {
+		final AliasBaseKey key = new AliasBaseKey( getClass(), base, tableCount );
+		String[] truncatedBases = aliasBases.get( key );
+		if ( truncatedBases == null ) {
+			truncatedBases = new String[MAX_UNIQUEING_VALUE_WIDTH + 1];
+			String[] existing = aliasBases.putIfAbsent( key, truncatedBases );
+			if ( existing != null ) {
+				truncatedBases = existing;
+			}
+		}
+		String truncatedBase = truncatedBases[uniqueingValueWidth];
+		if ( truncatedBase == null ) {
+			// racing threads compute the same value
+			truncatedBase = ensureAliasCapacity( cleanBase( base ), tableCount, uniqueingValueWidth );
+			truncatedBases[uniqueingValueWidth] = truncatedBase;
+		}
+		return truncatedBase;
 	}
 
 	private String cleanBase(String base) {
@@ -126,22 +182,48 @@ public abstract class AbstractTableAliasGeneratorTemplate implements TableAliasG
 		return base;
 	}
 
-	private String ensureAliasCapacity(String base, int mappedTableCount) {
+	private String ensureAliasCapacity(String base, int mappedTableCount, int uniqueingValueWidth) {
 		// we need to consider the max-alias-length reported by the dialect against the
 		// size of the incoming base + the number of mapped tables
-		int nextUniqueingValueSize = Integer.toString( uniqueingValue + 1 ).length();
-		int totalAllowableSizeOfAliasBase = dialect.getMaxAliasLength() - nextUniqueingValueSize;
+		int totalAllowableSizeOfAliasBase = dialect.getMaxAliasLength() - uniqueingValueWidth;
 		if ( mappedTableCount > 1 ) {
-			totalAllowableSizeOfAliasBase-= Integer.toString( mappedTableCount ).length();
+			totalAllowableSizeOfAliasBase-= AliasSuffixes.width( mappedTableCount );
 		}
-		return buildUniqueAliasBase( truncateAliasBase( base, totalAllowableSizeOfAliasBase ) );
-	}
-
-	private String buildUniqueAliasBase(String base) {
-		return base + uniqueInteger() + '_';
+		return truncateAliasBase( base, totalAllowableSizeOfAliasBase );
 	}
 
 	private int uniqueInteger() {
 		return uniqueingValue++;
 	}
+
+	private static class AliasBaseKey {
+		private final Class generatorType;
+		private final String base;
+		private final int tableCount;
+		private final int hashCode;
+
+		private AliasBaseKey(Class generatorType, String base, int tableCount) {
+			this.generatorType = generatorType;
+			this.base = base;
+			this.tableCount = tableCount;
+			this.hashCode = 31 * ( 31 * generatorType.hashCode() + base.hashCode() ) + tableCount;
+		}
+
+		public boolean equals(Object o) {
+			if ( this == o ) {
+				return true;
+			}
+			if ( !( o instanceof AliasBaseKey ) ) {
+				return false;
+			}
+			AliasBaseKey other = ( AliasBaseKey ) o;
+			return tableCount == other.tableCount
+					&& generatorType == other.generatorType
+					&& base.equals( other.base );
+		}
+
+		public int hashCode() {
+			return hashCode;
+		}
+	}
 }
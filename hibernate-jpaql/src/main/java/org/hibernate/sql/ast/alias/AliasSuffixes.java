@@ -0,0 +1,68 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2008, Red Hat Middleware LLC or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Middleware LLC.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ *
+ */
+package org.hibernate.sql.ast.alias;
+
+/**
+ * Preformatted <tt>N_</tt> alias suffixes for the small numbers used as alias uniqueing values and table numbers,
+ * sparing the {@link Integer#toString} (and the concatenation) for each generated alias.
+ */
+final class AliasSuffixes {
+	private static final String[] SUFFIXES = new String[128];
+	static {
+		for ( int i = 0; i < SUFFIXES.length; i++ ) {
+			SUFFIXES[i] = Integer.toString( i ) + '_';
+		}
+	}
+
+	private AliasSuffixes() {
+	}
+
+	/**
+	 * Retrieve the suffix for the given value.
+	 *
+	 * @param value The (non-negative) value.
+	 *
+	 * @return The value followed by an underscore.
+	 */
+	static String forValue(int value) {
+		return value >= 0 && value < SUFFIXES.length ? SUFFIXES[value] : Integer.toString( value ) + '_';
+	}
+
+	/**
+	 * Determine the number of digits of the given (non-negative) value.
+	 *
+	 * @param value The value.
+	 *
+	 * @return The number of digits.
+	 */
+	static int width(int value) {
+		int width = 1;
+		while ( value >= 10 ) {
+			value /= 10;
+			width++;
+		}
+		return width;
+	}
+}
@@ -25,10 +25,25 @@ package org.hibernate.sql.ast.alias;
 
 /**
  * Handles generating implicit (or synthetic) aliases.
+ * <p/>
+ * Implicit aliases are numbered per statement, each parse using its own generator; instances are therefore not
+ * thread-safe (and need not be).  The aliases for the first numbers are preallocated.
  *
  * @author Steve Ebersole
  */
 public class ImplicitAliasGenerator {
+	/**
+	 * The character implicit aliases start with; it cannot start an HQL identifier, so no explicit alias can clash.
+	 */
+	private static final char IMPLICIT_ALIAS_MARKER = '<';
+
+	private static final String[] PREALLOCATED_ALIASES = new String[64];
+	static {
+		for ( int i = 0; i < PREALLOCATED_ALIASES.length; i++ ) {
+			PREALLOCATED_ALIASES[i] = buildImplicitAlias( i ).intern();
+		}
+	}
+
 	private int unaliasedCount = 0;
 
 	/**
@@ -36,8 +51,23 @@ public class ImplicitAliasGenerator {
 	 *
 	 * @return The generated alias.
 	 */
-	public synchronized String buildUniqueImplicitAlias() {
-		return "<gen:" + unaliasedCount++ + ">";
+	public String buildUniqueImplicitAlias() {
+		return getImplicitAlias( unaliasedCount++ );
+	}
+
+	/**
+	 * Retrieve the implicit alias with the given number.
+	 *
+	 * @param number The alias number.
+	 *
+	 * @return The implicit alias.
+	 */
+	public static String getImplicitAlias(int number) {
+		return number < PREALLOCATED_ALIASES.length ? PREALLOCATED_ALIASES[number] : buildImplicitAlias( number );
+	}
+
+	private static String buildImplicitAlias(int number) {
+		return IMPLICIT_ALIAS_MARKER + "gen:" + number + ">";
 	}
 
 	/**
@@ -47,6 +77,6 @@ public class ImplicitAliasGenerator {
 	 * @return True/false.
 	 */
 	public static boolean isImplicitAlias(String alias) {
-		return alias == null || ( alias.startsWith( "<gen:" ) && alias.endsWith( ">" ) );
+		return alias == null || ( alias.length() > 0 && alias.charAt( 0 ) == IMPLICIT_ALIAS_MARKER );
 	}
 }
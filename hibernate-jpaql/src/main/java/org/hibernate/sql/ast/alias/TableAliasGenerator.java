@@ -53,7 +53,7 @@ public interface TableAliasGenerator {
 		 * @param base The base used to generate SQL aliases.
 		 */
 		public TableAliasRoot(String source, String base) {
-			log.trace( "Creating alias root [" + source + " -> " + base + "]" );
+			log.trace( "Creating alias root [{} -> {}]", source, base );
 			this.source = source;
 			this.base = base;
 		}
@@ -84,7 +84,7 @@ public interface TableAliasGenerator {
 		 * @return The generated alias.
 		 */
 		public String generate(int suffix) {
-			return base + Integer.toString( suffix ) + '_';
+			return base + AliasSuffixes.forValue( suffix );
 		}
 
 		/**
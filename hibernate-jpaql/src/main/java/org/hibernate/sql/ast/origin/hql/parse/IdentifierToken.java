@@ -0,0 +1,65 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2008, Red Hat Middleware LLC or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Middleware LLC.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ *
+ */
+package org.hibernate.sql.ast.origin.hql.parse;
+
+import org.antlr.runtime.CharStream;
+
+import org.hibernate.sql.ast.common.HibernateToken;
+
+/**
+ * The tokens {@link HQLLexer} produces for identifiers, tagged with their {@link SoftKeywords soft keyword} id when
+ * lexed so that the parser never has to re-examine their text.
+ */
+public class IdentifierToken extends HibernateToken {
+	private static final long serialVersionUID = 1L;
+
+	private final int softKeyword;
+
+	public IdentifierToken(CharStream input, int type, int channel, int start, int stop, String text) {
+		super( input, type, channel, start, stop );
+		// set the text explicitly, otherwise CommonToken extracts it from the char stream again on each getText()
+		setText( text != null ? text : input.substring( start, stop ) );
+		this.softKeyword = SoftKeywords.lookup( getText() );
+	}
+
+	/**
+	 * Copy constructor, keeping the soft keyword id.
+	 *
+	 * @param token The token to copy.
+	 */
+	public IdentifierToken(IdentifierToken token) {
+		super( token );
+		this.softKeyword = token.softKeyword;
+	}
+
+	/**
+	 * The soft keyword id of this identifier.
+	 *
+	 * @return The soft keyword id, or {@link SoftKeywords#NONE}.
+	 */
+	public int getSoftKeyword() {
+		return softKeyword;
+	}
+}
@@ -0,0 +1,236 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2008, Red Hat Middleware LLC or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Middleware LLC.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ *
+ */
+package org.hibernate.sql.ast.origin.hql.parse;
+
+import org.antlr.runtime.ANTLRStringStream;
+import org.antlr.runtime.CommonToken;
+import org.antlr.runtime.CommonTokenStream;
+import org.antlr.runtime.RecognitionException;
+import org.antlr.runtime.Token;
+import org.antlr.runtime.tree.CommonTree;
+import org.antlr.runtime.tree.Tree;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.hibernate.sql.ast.QuerySyntaxException;
+import org.hibernate.sql.ast.common.HibernateToken;
+import org.hibernate.sql.ast.util.BoundedTreeCache;
+
+/**
+ * A bounded, thread-safe cache of {@link HQLParser#statement() parsed statement} trees keyed by the (normalized)
+ * HQL text, allowing repeated queries to skip lexing and parsing altogether.
+ * <p/>
+ * The cached trees are never handed out directly; later phases (the resolver in particular) rewrite the trees
+ * they are given, so each lookup returns a private deep copy of the cached tree.
+ * <p/>
+ * Implicit aliases are numbered per parse, so a statement always yields the same tree (and in turn the same SQL)
+ * whatever was parsed before it.
+ * <p/>
+ * Entries are evicted in least-recently-used order as soon as either the number of entries exceeds
+ * {@link #getMaxEntries()} or the total number of tree nodes held exceeds {@link #getMaxTotalNodes()}.
+ */
+public class ParseTreeCache {
+	private static final Logger log = LoggerFactory.getLogger( ParseTreeCache.class );
+
+	public static final int DEFAULT_MAX_ENTRIES = 500;
+	public static final int DEFAULT_MAX_TOTAL_NODES = 100000;
+
+	private final ParserContext parserContext;
+	private final BoundedTreeCache<Tree> cache;
+
+	public ParseTreeCache() {
+		this( new ParserContextDefaultImpl(), DEFAULT_MAX_ENTRIES, DEFAULT_MAX_TOTAL_NODES );
+	}
+
+	/**
+	 * Constructs a cache.
+	 *
+	 * @param parserContext The context handed to the parser on a cache miss.
+	 * @param maxEntries The maximum number of statements to keep.
+	 * @param maxTotalNodes The maximum number of tree nodes to keep, summed across all cached statements.
+	 */
+	public ParseTreeCache(ParserContext parserContext, int maxEntries, int maxTotalNodes) {
+		this.parserContext = parserContext;
+		this.cache = new BoundedTreeCache<Tree>( maxEntries, maxTotalNodes );
+	}
+
+	/**
+	 * Retrieve the statement tree for the given HQL, parsing it only if it is not already cached.
+	 *
+	 * @param hql The HQL query string.
+	 *
+	 * @return A copy of the parsed statement tree, owned by the caller.
+	 *
+	 * @throws RecognitionException Indicates the parser could not recover from a syntax error.
+	 * @throws QuerySyntaxException Indicates the parser reported syntax errors.
+	 */
+	public Tree getStatementTree(String hql) throws RecognitionException {
+		final String key = normalize( hql );
+
+		Tree cached = cache.get( key );
+		if ( cached != null ) {
+			return copy( cached );
+		}
+
+		Tree tree = parse( hql );
+		Tree master = copy( tree );
+		int nodeCount = countNodes( master );
+		if ( !cache.put( key, master, nodeCount ) ) {
+			log.debug( "statement tree too large to be cached : {} nodes", nodeCount );
+		}
+		return tree;
+	}
+
+	private Tree parse(String hql) throws RecognitionException {
+		HQLLexer lexer = new HQLLexer( new ANTLRStringStream( hql ) );
+		HQLParser parser = new HQLParser( new CommonTokenStream( lexer ) );
+		parser.setParserContext( parserContext );
+		Tree tree = ( Tree ) parser.statement().getTree();
+		if ( parser.hasErrors() ) {
+			throw new QuerySyntaxException( parser.getErrorMessages().toString(), hql );
+		}
+		return tree;
+	}
+
+	/**
+	 * Remove all cached statements.  The statistics counters are left untouched.
+	 */
+	public void clear() {
+		cache.clear();
+	}
+
+	public ParserContext getParserContext() {
+		return parserContext;
+	}
+
+	public int getMaxEntries() {
+		return cache.getMaxEntries();
+	}
+
+	public int getMaxTotalNodes() {
+		return cache.getMaxTotalNodes();
+	}
+
+	public int getEntryCount() {
+		return cache.getEntryCount();
+	}
+
+	public int getTotalNodeCount() {
+		return cache.getTotalNodeCount();
+	}
+
+	public long getHitCount() {
+		return cache.getHitCount();
+	}
+
+	public long getMissCount() {
+		return cache.getMissCount();
+	}
+
+	public long getEvictionCount() {
+		return cache.getEvictionCount();
+	}
+
+	/**
+	 * Normalize the HQL text used as cache key : leading and trailing whitespace is removed and any other run of
+	 * whitespace outside of quoted literals/identifiers is collapsed into a single space.
+	 *
+	 * @param hql The HQL query string.
+	 *
+	 * @return The normalized form.
+	 */
+	public static String normalize(String hql) {
+		final String trimmed = hql.trim();
+		final int length = trimmed.length();
+		StringBuilder buffer = null;
+		char quote = 0;
+		for ( int i = 0; i < length; i++ ) {
+			final char c = trimmed.charAt( i );
+			if ( quote != 0 ) {
+				if ( c == quote ) {
+					quote = 0;
+				}
+			}
+			else if ( c == '\'' || c == '"' || c == '`' ) {
+				quote = c;
+			}
+			else if ( Character.isWhitespace( c ) && ( c != ' ' || Character.isWhitespace( trimmed.charAt( i + 1 ) ) ) ) {
+				// a run of whitespace other than a single space; rewrite the string from here on
+				if ( buffer == null ) {
+					buffer = new StringBuilder( length ).append( trimmed, 0, i );
+				}
+				buffer.append( ' ' );
+				while ( Character.isWhitespace( trimmed.charAt( i + 1 ) ) ) {
+					i++;
+				}
+				continue;
+			}
+			if ( buffer != null ) {
+				buffer.append( c );
+			}
+		}
+		return buffer == null ? trimmed : buffer.toString();
+	}
+
+	private static int countNodes(Tree tree) {
+		int count = 1;
+		for ( int i = 0; i < tree.getChildCount(); i++ ) {
+			count += countNodes( tree.getChild( i ) );
+		}
+		return count;
+	}
+
+	/**
+	 * Deep copy the tree, including the tokens, so that nothing the caller does to its copy can leak back into the
+	 * cached tree.
+	 */
+	private static Tree copy(Tree tree) {
+		Tree copy = tree.dupNode();
+		if ( copy instanceof CommonTree ) {
+			final CommonTree commonCopy = ( CommonTree ) copy;
+			commonCopy.token = copyToken( commonCopy.token );
+		}
+		copy.setTokenStartIndex( tree.getTokenStartIndex() );
+		copy.setTokenStopIndex( tree.getTokenStopIndex() );
+		for ( int i = 0; i < tree.getChildCount(); i++ ) {
+			copy.addChild( copy( tree.getChild( i ) ) );
+		}
+		return copy;
+	}
+
+	private static Token copyToken(Token token) {
+		if ( token == null ) {
+			return null;
+		}
+		if ( token instanceof IdentifierToken ) {
+			// the parser goes by the soft keyword id the lexer tagged identifiers with
+			return new IdentifierToken( ( IdentifierToken ) token );
+		}
+		if ( token instanceof HibernateToken ) {
+			return new HibernateToken( token );
+		}
+		return new CommonToken( token );
+	}
+}
@@ -9,6 +9,4 @@ public interface ParserContext {
 	public boolean isEntityName(String text);
 
 	public List getEntityImplementors(String text);
-	
-	public String buildUniqueImplicitAlias();
 }
@@ -3,12 +3,8 @@ package org.hibernate.sql.ast.origin.hql.parse;
 import java.util.ArrayList;
 import java.util.List;
 
-import org.hibernate.sql.ast.alias.ImplicitAliasGenerator;
-
 public class ParserContextDefaultImpl implements ParserContext {
 
-	private final ImplicitAliasGenerator implicitAliasGenerator = new ImplicitAliasGenerator(); 
-	
 	public List getEntityImplementors(String text) {
 		List implementors = new ArrayList();
 		implementors.add(text);
@@ -23,8 +19,4 @@ public class ParserContextDefaultImpl implements ParserContext {
 		return false;
 	}
 
-	public String buildUniqueImplicitAlias() {
-		return implicitAliasGenerator.buildUniqueImplicitAlias();
-	}
-
 }
@@ -0,0 +1,71 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2008, Red Hat Middleware LLC or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Middleware LLC.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ *
+ */
+package org.hibernate.sql.ast.origin.hql.parse;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.engine.SessionFactoryImplementor;
+import org.hibernate.util.ReflectHelper;
+
+/**
+ * A {@link ParserContext} answering from the entities (and imports) of a session factory, so that entity names are
+ * expanded to their implementors as the session factory would resolve them.
+ */
+public class SessionFactoryParserContext implements ParserContext {
+	private final SessionFactoryImplementor sessionFactory;
+
+	public SessionFactoryParserContext(SessionFactoryImplementor sessionFactory) {
+		this.sessionFactory = sessionFactory;
+	}
+
+	public SessionFactoryImplementor getSessionFactory() {
+		return sessionFactory;
+	}
+
+	public List getEntityImplementors(String text) {
+		final String className = sessionFactory.getImportedClassName( text );
+		if ( className == null ) {
+			return null;
+		}
+		final List<String> implementors = new ArrayList<String>();
+		for ( String implementor : sessionFactory.getImplementors( className ) ) {
+			// for an unknown class name, the name itself is returned
+			if ( sessionFactory.getClassMetadata( implementor ) != null ) {
+				implementors.add( implementor );
+			}
+		}
+		return implementors.isEmpty() ? null : implementors;
+	}
+
+	public boolean isEntityName(String text) {
+		final String className = sessionFactory.getImportedClassName( text );
+		return className != null && sessionFactory.getClassMetadata( className ) != null;
+	}
+
+	public boolean isJavaConstant(String text) {
+		return text.indexOf( '.' ) > 0 && ReflectHelper.getConstantValue( text ) != null;
+	}
+}
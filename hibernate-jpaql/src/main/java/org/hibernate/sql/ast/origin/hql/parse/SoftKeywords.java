@@ -0,0 +1,323 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2008, Red Hat Middleware LLC or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Middleware LLC.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ *
+ */
+package org.hibernate.sql.ast.origin.hql.parse;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.antlr.runtime.Token;
+
+import org.hibernate.sql.ast.util.CaseInsensitiveWords;
+
+/**
+ * The soft keywords of HQL (and of <tt>order-by</tt> fragments); words lexed as plain {@link HQLLexer#IDENTIFIER}s
+ * which the parsers recognize contextually.
+ * <p/>
+ * Each soft keyword is assigned an int id, so that parser predicates can compare ints instead of comparing the
+ * token text with each candidate keyword in turn.  Identifier tokens are tagged with their id once, when lexed (see
+ * {@link IdentifierToken}); the lookup itself is a single probe of a {@link CaseInsensitiveWords} table, matching
+ * exactly as {@link String#equalsIgnoreCase} would.
+ */
+public final class SoftKeywords {
+	/**
+	 * The id of words which are not soft keywords.
+	 */
+	public static final int NONE = CaseInsensitiveWords.NOT_FOUND;
+
+	public static final int ABS = 1;
+	public static final int ALL = 2;
+	public static final int AND = 3;
+	public static final int ANY = 4;
+	public static final int AS = 5;
+	public static final int ASC = 6;
+	public static final int ASCENDING = 7;
+	public static final int AVG = 8;
+	public static final int BETWEEN = 9;
+	public static final int BIT_LENGTH = 10;
+	public static final int BOTH = 11;
+	public static final int BY = 12;
+	public static final int CASE = 13;
+	public static final int CAST = 14;
+	public static final int CHAR_LENGTH = 15;
+	public static final int CHARACTER_LENGTH = 16;
+	public static final int CLASS = 17;
+	public static final int COALESCE = 18;
+	public static final int COLLATE = 19;
+	public static final int CONCAT = 20;
+	public static final int COUNT = 21;
+	public static final int CROSS = 22;
+	public static final int CURRENT_DATE = 23;
+	public static final int CURRENT_TIME = 24;
+	public static final int CURRENT_TIMESTAMP = 25;
+	public static final int DAY = 26;
+	public static final int DELETE = 27;
+	public static final int DESC = 28;
+	public static final int DESCENDING = 29;
+	public static final int DISTINCT = 30;
+	public static final int ELEMENTS = 31;
+	public static final int ELSE = 32;
+	public static final int EMPTY = 33;
+	public static final int END = 34;
+	public static final int ESCAPE = 35;
+	public static final int EXCEPT = 36;
+	public static final int EXISTS = 37;
+	public static final int EXTRACT = 38;
+	public static final int FETCH = 39;
+	public static final int FROM = 40;
+	public static final int FULL = 41;
+	public static final int GROUP = 42;
+	public static final int HAVING = 43;
+	public static final int HOUR = 44;
+	public static final int IN = 45;
+	public static final int INDEX = 46;
+	public static final int INDICES = 47;
+	public static final int INNER = 48;
+	public static final int INSERT = 49;
+	public static final int INTERSECT = 50;
+	public static final int INTO = 51;
+	public static final int IS = 52;
+	public static final int JOIN = 53;
+	public static final int LEADING = 54;
+	public static final int LEFT = 55;
+	public static final int LENGTH = 56;
+	public static final int LIKE = 57;
+	public static final int LOCATE = 58;
+	public static final int LOWER = 59;
+	public static final int MAX = 60;
+	public static final int MAXELEMENT = 61;
+	public static final int MAXINDEX = 62;
+	public static final int MEMBER = 63;
+	public static final int MIN = 64;
+	public static final int MINELEMENT = 65;
+	public static final int MININDEX = 66;
+	public static final int MINUTE = 67;
+	public static final int MOD = 68;
+	public static final int MONTH = 69;
+	public static final int NEW = 70;
+	public static final int NOT = 71;
+	public static final int NULLIF = 72;
+	public static final int OBJECT = 73;
+	public static final int OCTET_LENGTH = 74;
+	public static final int OF = 75;
+	public static final int ON = 76;
+	public static final int OR = 77;
+	public static final int ORDER = 78;
+	public static final int OUTER = 79;
+	public static final int POSITION = 80;
+	public static final int PROPERTIES = 81;
+	public static final int RIGHT = 82;
+	public static final int SECOND = 83;
+	public static final int SELECT = 84;
+	public static final int SET = 85;
+	public static final int SIZE = 86;
+	public static final int SOME = 87;
+	public static final int SQRT = 88;
+	public static final int SUBSTRING = 89;
+	public static final int SUM = 90;
+	public static final int THEN = 91;
+	public static final int TIMEZONE_HOUR = 92;
+	public static final int TIMEZONE_MINUTE = 93;
+	public static final int TRAILING = 94;
+	public static final int TRIM = 95;
+	public static final int UNION = 96;
+	public static final int UPDATE = 97;
+	public static final int UPPER = 98;
+	public static final int VERSIONED = 99;
+	public static final int WHEN = 100;
+	public static final int WHERE = 101;
+	public static final int WITH = 102;
+	public static final int YEAR = 103;
+
+	private static final String[] NAMES = {
+			null,
+			"abs",
+			"all",
+			"and",
+			"any",
+			"as",
+			"asc",
+			"ascending",
+			"avg",
+			"between",
+			"bit_length",
+			"both",
+			"by",
+			"case",
+			"cast",
+			"char_length",
+			"character_length",
+			"class",
+			"coalesce",
+			"collate",
+			"concat",
+			"count",
+			"cross",
+			"current_date",
+			"current_time",
+			"current_timestamp",
+			"day",
+			"delete",
+			"desc",
+			"descending",
+			"distinct",
+			"elements",
+			"else",
+			"empty",
+			"end",
+			"escape",
+			"except",
+			"exists",
+			"extract",
+			"fetch",
+			"from",
+			"full",
+			"group",
+			"having",
+			"hour",
+			"in",
+			"index",
+			"indices",
+			"inner",
+			"insert",
+			"intersect",
+			"into",
+			"is",
+			"join",
+			"leading",
+			"left",
+			"length",
+			"like",
+			"locate",
+			"lower",
+			"max",
+			"maxelement",
+			"maxindex",
+			"member",
+			"min",
+			"minelement",
+			"minindex",
+			"minute",
+			"mod",
+			"month",
+			"new",
+			"not",
+			"nullif",
+			"object",
+			"octet_length",
+			"of",
+			"on",
+			"or",
+			"order",
+			"outer",
+			"position",
+			"properties",
+			"right",
+			"second",
+			"select",
+			"set",
+			"size",
+			"some",
+			"sqrt",
+			"substring",
+			"sum",
+			"then",
+			"timezone_hour",
+			"timezone_minute",
+			"trailing",
+			"trim",
+			"union",
+			"update",
+			"upper",
+			"versioned",
+			"when",
+			"where",
+			"with",
+			"year",
+	};
+
+	private static final CaseInsensitiveWords WORDS;
+
+	static {
+		final Map<String,Integer> ids = new HashMap<String,Integer>();
+		for ( int id = 1; id < NAMES.length; id++ ) {
+			ids.put( NAMES[id], id );
+		}
+		WORDS = new CaseInsensitiveWords( ids );
+	}
+
+	private SoftKeywords() {
+	}
+
+	/**
+	 * Retrieve the text of the given soft keyword.
+	 *
+	 * @param id The soft keyword id.
+	 *
+	 * @return The (lower case) soft keyword.
+	 */
+	public static String getName(int id) {
+		return NAMES[id];
+	}
+
+	/**
+	 * Determine the soft keyword id of the given token.
+	 *
+	 * @param token The token.
+	 *
+	 * @return The soft keyword id, or {@link #NONE}.
+	 */
+	public static int of(Token token) {
+		if ( token instanceof IdentifierToken ) {
+			return ( ( IdentifierToken ) token ).getSoftKeyword();
+		}
+		final String text = token.getText();
+		return text == null ? NONE : lookup( text );
+	}
+
+	/**
+	 * Determine the soft keyword id of the given word.
+	 *
+	 * @param word The word.
+	 *
+	 * @return The soft keyword id, or {@link #NONE}.
+	 */
+	public static int lookup(String word) {
+		final char[] chars = word.toCharArray();
+		return lookup( chars, 0, chars.length );
+	}
+
+	/**
+	 * Determine the soft keyword id of the word in the given character range.
+	 *
+	 * @param chars The characters.
+	 * @param start The start of the word.
+	 * @param length The length of the word.
+	 *
+	 * @return The soft keyword id, or {@link #NONE}.
+	 */
+	public static int lookup(char[] chars, int start, int length) {
+		return WORDS.lookup( chars, start, length );
+	}
+}
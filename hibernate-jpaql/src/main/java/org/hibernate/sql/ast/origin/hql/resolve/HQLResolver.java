@@ -28,18 +28,22 @@
  */
 package org.hibernate.sql.ast.origin.hql.resolve;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import org.antlr.runtime.RecognitionException;
 import org.antlr.runtime.RecognizerSharedState;
 import org.antlr.runtime.tree.CommonTree;
 import org.antlr.runtime.tree.Tree;
 import org.antlr.runtime.tree.TreeNodeStream;
 
 import org.hibernate.engine.SessionFactoryImplementor;
-import org.hibernate.persister.entity.Queryable;
 import org.hibernate.sql.ast.alias.DefaultTableAliasGenerator;
 import org.hibernate.sql.ast.alias.TableAliasGenerator;
 import org.hibernate.sql.ast.common.HibernateTree;
 import org.hibernate.sql.ast.common.JoinType;
 import org.hibernate.sql.ast.origin.hql.parse.HQLLexer;
+import org.hibernate.sql.ast.origin.hql.resolve.path.PathResolutionMemo;
 import org.hibernate.sql.ast.origin.hql.resolve.path.PathResolutionStrategy;
 import org.hibernate.sql.ast.origin.hql.resolve.path.PathResolutionStrategyStack;
 import org.hibernate.sql.ast.origin.hql.resolve.path.PathedPropertyReferenceSource;
@@ -48,6 +52,7 @@ import org.hibernate.sql.ast.origin.hql.resolve.path.impl.FromClausePathResoluti
 import org.hibernate.sql.ast.origin.hql.resolve.path.impl.SelectClausePathResolutionStrategy;
 import org.hibernate.sql.ast.tree.Table;
 import org.hibernate.sql.ast.tree.Table.EntityTableSpace;
+import org.hibernate.sql.ast.util.TreeDiagnostics;
 import org.hibernate.sql.ast.util.TreePrinter;
 
 import org.slf4j.Logger;
@@ -57,10 +62,14 @@ public class HQLResolver extends GeneratedHQLResolver implements ResolutionConte
 	private static final Logger log = LoggerFactory.getLogger( HQLResolver.class );
 
 	private final SessionFactoryImplementor sessionFactory;
-	private final PersisterSpaceContext persisterSpaceContext;
+	private final ResolutionMetadata resolutionMetadata;
+	private final RootPersisterSpaceContext persisterSpaceContext;
 	private final DefaultTableAliasGenerator defaultTableAliasGenerator;
 	private final PathResolutionStrategyStack pathResolutionStrategyStack;
+	private final PathResolutionMemo pathResolutionMemo = new PathResolutionMemo();
 	private final TreePrinter printer;
+	private final List<Table.TableSpace> tableSpaces = new ArrayList<Table.TableSpace>();
+	private final List<String> errorMessages = new ArrayList<String>();
 
 	private boolean isProcessingFunction = false;
 
@@ -71,20 +80,71 @@ public class HQLResolver extends GeneratedHQLResolver implements ResolutionConte
 	public HQLResolver(TreeNodeStream input, RecognizerSharedState state, SessionFactoryImplementor sessionFactory) {
 		super( input, state );
 		this.sessionFactory = sessionFactory;
+		this.resolutionMetadata = ResolutionMetadata.forSessionFactory( sessionFactory );
 		this.persisterSpaceContext = new RootPersisterSpaceContext();
 		this.defaultTableAliasGenerator = new DefaultTableAliasGenerator( sessionFactory.getDialect() );
-		this.printer = new TreePrinter( HQLLexer.class );
+		this.printer = TreeDiagnostics.getPrinter( HQLLexer.class );
 		this.pathResolutionStrategyStack = new PathResolutionStrategyStack();
 		this.pathResolutionStrategyStack.push( new BasicPathResolutionStrategySupport( this ) );
 	}
 
+	/**
+	 * Prepare this resolver to resolve another statement.
+	 *
+	 * @param input The tree node stream of the next statement; may be null to simply release the previous one.
+	 *
+	 * @see #reset()
+	 */
+	public void reset(TreeNodeStream input) {
+		setTreeNodeStream( input );
+		reset();
+	}
+
+	/**
+	 * Rewind the input and discard all the state accumulated while resolving the previous statement (persister
+	 * spaces, table spaces, memoized paths, the table alias uniqueing value, ...), so that this resolver behaves
+	 * exactly as a newly constructed one would.
+	 */
+	@Override
+	public void reset() {
+		super.reset();
+		persisterSpaceContext.clear();
+		defaultTableAliasGenerator.reset();
+		pathResolutionStrategyStack.clear();
+		pathResolutionStrategyStack.push( new BasicPathResolutionStrategySupport( this ) );
+		pathResolutionMemo.clear();
+		tableSpaces.clear();
+		errorMessages.clear();
+		isProcessingFunction = false;
+	}
+
+	/**
+	 * Did resolution of the statement report (and recover from) any errors?
+	 *
+	 * @return True if errors were reported; see {@link #getErrorMessages()}.
+	 */
+	public boolean hasErrors() {
+		return !errorMessages.isEmpty();
+	}
+
+	public List<String> getErrorMessages() {
+		return errorMessages;
+	}
+
+	@Override
+	public void reportError(RecognitionException e) {
+		errorMessages.add( getErrorHeader( e ) + " " + getErrorMessage( e, getTokenNames() ) );
+		super.reportError( e );
+	}
+
 	protected void registerPersisterSpace(Tree entityName, Tree alias) {
 		String entityPersisterName = sessionFactory.getImportedClassName( entityName.getText() );
-		Queryable entityPersister = ( Queryable ) sessionFactory.getEntityPersister( entityPersisterName );
+		ResolutionMetadata.EntityMetadata entityMetadata = resolutionMetadata.getEntityMetadata( entityPersisterName );
 
 		TableAliasGenerator.TableAliasRoot tableAliasRoot = getTableAliasGenerator()
-				.generateSqlAliasRoot( entityPersister, alias.getText() );
-		EntityTableSpace tableSpace = new Table.EntityTableSpace( entityPersister, tableAliasRoot );
+				.generateSqlAliasRoot( entityMetadata.getPersister(), alias.getText() );
+		EntityTableSpace tableSpace = new Table.EntityTableSpace( entityMetadata, tableAliasRoot );
+		registerTableSpace( tableSpace );
 		registerPersisterSpace( tableSpace.getPersisterSpace() );
 	}
 
@@ -96,6 +156,10 @@ public class HQLResolver extends GeneratedHQLResolver implements ResolutionConte
 		return sessionFactory;
 	}
 
+	public ResolutionMetadata getResolutionMetadata() {
+		return resolutionMetadata;
+	}
+
 	public TableAliasGenerator getTableAliasGenerator() {
 		return defaultTableAliasGenerator;
 	}
@@ -116,6 +180,10 @@ public class HQLResolver extends GeneratedHQLResolver implements ResolutionConte
 		return pathResolutionStrategyStack.getCurrent();
 	}
 
+	public PathResolutionMemo getPathResolutionMemo() {
+		return pathResolutionMemo;
+	}
+
 	public void registerAssociationFetch(PersisterSpace persisterSpace) {
 		throw new UnsupportedOperationException( "must be implemented!" );
 	}
@@ -124,6 +192,16 @@ public class HQLResolver extends GeneratedHQLResolver implements ResolutionConte
 		throw new UnsupportedOperationException( "must be implemented!" );
 	}
 
+	public void registerTableSpace(Table.TableSpace tableSpace) {
+		tableSpaces.add( tableSpace );
+	}
+
+	protected void finalizeTableSpaces() {
+		for ( Table.TableSpace tableSpace : tableSpaces ) {
+			tableSpace.finalizeJoins();
+		}
+	}
+
 	protected void pushFromStrategy(
 			JoinType joinType,
 			Tree associationFetch,
@@ -166,13 +244,19 @@ public class HQLResolver extends GeneratedHQLResolver implements ResolutionConte
 
 	protected boolean isPersisterReferenceAlias() {
 		Tree alias = ( Tree ) input.LT( 1 );
-		log.trace(
-				"Checking [" + textOrNull( alias )
-						+ "] as persister-ref alias"
-		);
+		log.trace( "Checking [{}] as persister-ref alias", textOrNull( alias ) );
 		return getCurrentPersisterSpaceContext().isContainedAlias( alias.getText() );
 	}
 
+	protected void normalizePersisterReference(Tree alias) {
+		log.trace( "normalizing persister reference [{}]", textOrNull( alias ) );
+		PersisterSpace persisterSpace = getCurrentPersisterSpaceContext().locatePersisterSpaceByAlias( alias.getText() );
+		if ( persisterSpace != null ) {
+			// the entity is referenced as a whole, which (unlike its properties) spans all of its tables
+			persisterSpace.getTableSpace().markAllTablesReferenced();
+		}
+	}
+
 	protected PathedPropertyReferenceSource normalizeUnqualifiedPropertyReference(Tree property) {
 		return getCurrentPathResolutionStrategy().handleRoot(
 				getCurrentPersisterSpaceContext().locatePersisterSpaceExposingProperty( property.getText() )
@@ -180,29 +264,31 @@ public class HQLResolver extends GeneratedHQLResolver implements ResolutionConte
 	}
 
 	protected PathedPropertyReferenceSource normalizeUnqualifiedRoot(Tree propertyName) {
-		log.debug( "normalizing path expression root as unqualified property [" + textOrNull( propertyName ) + "]" );
-		PathedPropertyReferenceSource root = getCurrentPathResolutionStrategy().handleRoot(
+		log.debug( "normalizing path expression root as unqualified property [{}]", textOrNull( propertyName ) );
+		PathResolutionStrategy strategy = getCurrentPathResolutionStrategy();
+		PathedPropertyReferenceSource root = strategy.handleRoot(
 				getCurrentPersisterSpaceContext().locatePersisterSpaceExposingProperty( propertyName.getText() )
 		);
-		return root.handleIntermediatePathPart( propertyName.getText() );
+		// go through the strategy (rather than the root source directly) so that the part is tracked like any other
+		return strategy.handleIntermediatePathPart( root, propertyName.getText() );
 	}
 
 	protected PathedPropertyReferenceSource normalizeQualifiedRoot(Tree alias) {
-		log.debug( "normalizing path expression root as alias [" + alias.getText() + "]" );
+		log.debug( "normalizing path expression root as alias [{}]", alias.getText() );
 		return getCurrentPathResolutionStrategy().handleRoot(
 				getCurrentPersisterSpaceContext().locatePersisterSpaceByAlias( alias.getText() )
 		);
 	}
 
 	protected Tree normalizePropertyPathTerminus(PathedPropertyReferenceSource source, Tree propertyNameNode) {
-		log.trace( "normalizing terminal path expression [" + textOrNull( propertyNameNode ) + "]" );
+		log.trace( "normalizing terminal path expression [{}]", textOrNull( propertyNameNode ) );
 		return getCurrentPathResolutionStrategy().handleTerminalPathPart( source, propertyNameNode.getText() );
 	}
 
 	protected PathedPropertyReferenceSource normalizePropertyPathIntermediary(
 			PathedPropertyReferenceSource source,
 			Tree propertyName) {
-		log.trace( "normalizing intermediate path expression [" + textOrNull( propertyName ) + "]" );
+		log.trace( "normalizing intermediate path expression [{}]", textOrNull( propertyName ) );
 		return getCurrentPathResolutionStrategy().handleIntermediatePathPart( source, propertyName.getText() );
 	}
 
@@ -216,7 +302,7 @@ public class HQLResolver extends GeneratedHQLResolver implements ResolutionConte
 			PathedPropertyReferenceSource collectionSource,
 			Tree collectionProperty,
 			Tree selector) {
-		log.trace( "normalizing intermediate index access [" + textOrNull( collectionProperty ) + "]" );
+		log.trace( "normalizing intermediate index access [{}]", textOrNull( collectionProperty ) );
 		return getCurrentPathResolutionStrategy().handleIntermediateIndexAccess(
 				collectionSource,
 				collectionProperty.getText(),
@@ -228,7 +314,7 @@ public class HQLResolver extends GeneratedHQLResolver implements ResolutionConte
 			PathedPropertyReferenceSource collectionSource,
 			Tree collectionProperty,
 			Tree selector) {
-		log.trace( "normalizing terminal index access [" + textOrNull( collectionProperty ) + "]" );
+		log.trace( "normalizing terminal index access [{}]", textOrNull( collectionProperty ) );
 		getCurrentPathResolutionStrategy().handleTerminalIndexAccess(
 				collectionSource, collectionProperty.getText(),
 				new HibernateTree( ( CommonTree ) selector )
@@ -0,0 +1,153 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2008, Red Hat Middleware LLC or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Middleware LLC.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ *
+ */
+package org.hibernate.sql.ast.origin.hql.resolve;
+
+import java.lang.ref.Reference;
+import java.lang.ref.WeakReference;
+
+import org.antlr.runtime.RecognitionException;
+import org.antlr.runtime.tree.CommonTreeNodeStream;
+import org.antlr.runtime.tree.TreeNodeStream;
+
+import org.hibernate.engine.SessionFactoryImplementor;
+import org.hibernate.sql.ast.QuerySyntaxException;
+import org.hibernate.sql.ast.origin.hql.parse.ParseTreeCache;
+import org.hibernate.sql.ast.origin.hql.parse.SessionFactoryParserContext;
+
+/**
+ * Hands out {@link HQLResolver} instances for a given session factory, keeping one per thread and
+ * {@link HQLResolver#reset(TreeNodeStream) resetting} it between statements rather than building a new one (along
+ * with its persister space context, alias generator, strategy stack, ...) for each.  Usage is:
+ * <pre>
+ * HQLResolver resolver = factory.acquireResolver( input );
+ * try {
+ *     ... resolver.statement() ...
+ * }
+ * finally {
+ *     factory.releaseResolver( resolver );
+ * }
+ * </pre>
+ * Should a resolver be requested while the thread's own is still in use, a throw-away instance is returned instead.
+ * <p/>
+ * The threads only reference their resolver weakly, so that neither the resolvers nor the session factory they
+ * reference are kept alive by threads outliving the session factory.
+ * <p/>
+ * Statements given as HQL text are parsed through a {@link ParseTreeCache} parsing against the session factory's
+ * entities, so that repeated statements skip lexing and parsing.
+ */
+public class HQLResolverFactory {
+	private final SessionFactoryImplementor sessionFactory;
+	private final ParseTreeCache parseTreeCache;
+	private final ThreadLocal<Reference<HQLResolver>> resolvers = new ThreadLocal<Reference<HQLResolver>>();
+
+	public HQLResolverFactory(SessionFactoryImplementor sessionFactory) {
+		this(
+				sessionFactory,
+				new ParseTreeCache(
+						new SessionFactoryParserContext( sessionFactory ),
+						ParseTreeCache.DEFAULT_MAX_ENTRIES,
+						ParseTreeCache.DEFAULT_MAX_TOTAL_NODES
+				)
+		);
+	}
+
+	/**
+	 * Constructs a resolver factory.
+	 *
+	 * @param sessionFactory The session factory against which statements are resolved.
+	 * @param parseTreeCache The cache through which HQL text is parsed.
+	 */
+	public HQLResolverFactory(SessionFactoryImplementor sessionFactory, ParseTreeCache parseTreeCache) {
+		this.sessionFactory = sessionFactory;
+		this.parseTreeCache = parseTreeCache;
+	}
+
+	public SessionFactoryImplementor getSessionFactory() {
+		return sessionFactory;
+	}
+
+	public ParseTreeCache getParseTreeCache() {
+		return parseTreeCache;
+	}
+
+	/**
+	 * Obtain a resolver ready to resolve the given HQL statement, parsing it only if it is not already cached.
+	 *
+	 * @param hql The HQL query string.
+	 *
+	 * @return The resolver; to be handed back through {@link #releaseResolver} once done.
+	 *
+	 * @throws RecognitionException Indicates the parser could not recover from a syntax error.
+	 * @throws QuerySyntaxException Indicates the parser reported syntax errors.
+	 */
+	public HQLResolver acquireResolver(String hql) throws RecognitionException {
+		return acquireResolver( new CommonTreeNodeStream( parseTreeCache.getStatementTree( hql ) ) );
+	}
+
+	/**
+	 * Obtain a resolver ready to resolve the given input.
+	 *
+	 * @param input The tree node stream of the statement to resolve.
+	 *
+	 * @return The resolver; to be handed back through {@link #releaseResolver} once done.
+	 */
+	public HQLResolver acquireResolver(TreeNodeStream input) {
+		HQLResolver resolver = threadResolver();
+		if ( resolver == null ) {
+			resolver = new HQLResolver( input, sessionFactory );
+			resolvers.set( new WeakReference<HQLResolver>( resolver ) );
+			return resolver;
+		}
+		if ( resolver.getTreeNodeStream() != null ) {
+			// a resolution is already under way on this thread
+			return new HQLResolver( input, sessionFactory );
+		}
+		resolver.reset( input );
+		return resolver;
+	}
+
+	/**
+	 * Hand back a resolver obtained from {@link #acquireResolver}.  The resolver's state is discarded right away, so
+	 * that the trees of the last statement it resolved are not retained.  Once the session factory is closed, the
+	 * thread lets go of its resolver altogether.
+	 *
+	 * @param resolver The resolver to release.
+	 */
+	public void releaseResolver(HQLResolver resolver) {
+		if ( resolver == threadResolver() ) {
+			if ( sessionFactory.isClosed() ) {
+				resolvers.remove();
+			}
+			else {
+				resolver.reset( null );
+			}
+		}
+	}
+
+	private HQLResolver threadResolver() {
+		final Reference<HQLResolver> reference = resolvers.get();
+		return reference == null ? null : reference.get();
+	}
+}
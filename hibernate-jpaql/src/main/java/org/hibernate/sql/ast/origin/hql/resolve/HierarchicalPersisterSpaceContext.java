@@ -91,7 +91,8 @@ public class HierarchicalPersisterSpaceContext extends RootPersisterSpaceContext
 	/**
 	 * {@inheritDoc}
 	 * <p/>
-	 * Overriden to project the lookup to our parent if not found locally.
+	 * Overriden to project the lookup to our parent if not found locally.  Each level consults its own property
+	 * index, so a lookup costs one probe per enclosing query regardless of the number of persister spaces.
 	 */
 	public PersisterSpace locatePersisterSpaceExposingProperty(String propertyName) {
 		PersisterSpace persisterSpace = super.locatePersisterSpaceExposingProperty( propertyName );
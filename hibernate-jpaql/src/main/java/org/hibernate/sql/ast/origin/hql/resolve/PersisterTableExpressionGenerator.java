@@ -28,15 +28,15 @@
  */
 package org.hibernate.sql.ast.origin.hql.resolve;
 
-import org.hibernate.persister.MappedTableMetadata;
-import org.hibernate.persister.collection.QueryableCollection;
-import org.hibernate.persister.entity.Queryable;
 import org.hibernate.sql.ast.alias.TableAliasGenerator;
 import org.hibernate.sql.ast.common.HibernateTree;
 import org.hibernate.sql.ast.tree.Table;
-import org.hibernate.sql.ast.util.TreePrinter;
+import org.hibernate.sql.ast.util.TreeDiagnostics;
 import org.hibernate.sql.ast.origin.hql.parse.HQLLexer;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 /**
  * Generate table expressions for persisters.
  * <p/>
@@ -45,106 +45,70 @@ import org.hibernate.sql.ast.origin.hql.parse.HQLLexer;
  * @author Steve Ebersole
  */
 public abstract class PersisterTableExpressionGenerator {
+	private static final Logger log = LoggerFactory.getLogger( PersisterTableExpressionGenerator.class );
+
 	/**
-	 * Generate the table expression for the given entity persister.
+	 * Generate the table expression for the given entity persister, by stamping out the
+	 * {@link ResolutionMetadata.EntityMetadata#getTableExpressionTemplate() prebuilt template} of the persister.
 	 *
-	 * @param persister The entity persister.
+	 * @param metadata The resolution metadata of the entity persister.
 	 * @param aliasRoot The alias root for SQL alias generation.
 	 * @param tableSpace The table space to which any generated table references need to belong.
 	 *
 	 * @return The generated table expression (could be simply the root table in a joined table structure).
 	 */
 	public static Table generateTableExpression(
-			Queryable persister,
+			ResolutionMetadata.EntityMetadata metadata,
 			TableAliasGenerator.TableAliasRoot aliasRoot,
 			Table.EntityTableSpace tableSpace) {
-		MappedTableMetadata tableMetadata = persister.getMappedTableMetadata();
-
-		final String drivingTableName = tableMetadata.getDrivingTableName();
-		final String[] drivingTableJoinColumns = tableMetadata.getIdentifierColumnNames();
-		final String drivingTableAlias = aliasRoot.generate( 0 );
-		final Table drivingTable = generateTableReference( drivingTableName, drivingTableAlias, tableSpace );
+		final Table drivingTable = metadata.getTableExpressionTemplate().stamp( aliasRoot, tableSpace );
 
-		int suffix = 0;
-
-		for ( MappedTableMetadata.JoinedTable joinedTable : tableMetadata.getJoinedTables() ) {
-			final String joinTableAlias = aliasRoot.generate( ++suffix );
-			final Table table = generateTableReference( joinedTable.getName(), joinTableAlias, tableSpace );
-
-			final HibernateTree join = new HibernateTree( HQLLexer.JOIN, "join" );
-			drivingTable.addChild( join );
-			if ( joinedTable.useInnerJoin() ) {
-				join.addChild( new HibernateTree( HQLLexer.INNER, "inner" ) );
-			}
-			else {
-				join.addChild( new HibernateTree( HQLLexer.LEFT, "left outer" ) );
-			}
-			join.addChild( table );
-
-			final HibernateTree on = new HibernateTree( HQLLexer.ON, "on" );
-			join.addChild( on );
-			final HibernateTree joinCondition = generateJoinCorrelation(
-					drivingTableAlias,
-					drivingTableJoinColumns,
-					joinTableAlias,
-					joinedTable.getKeyColumns()
-			);
-			on.addChild( joinCondition );
+		if ( TreeDiagnostics.ENABLED ) {
+			TreeDiagnostics.debug( log, HQLLexer.class, drivingTable, "Generated table space" );
 		}
 
-		// todo : temporary...
-		System.out.println(
-				new TreePrinter( HQLLexer.class ).renderAsString( drivingTable, "Generated table space" )
-		);
-
 		return drivingTable;
 	}
 
 	/**
 	 * Generate the table expression for the given collection persister.
 	 *
-	 * @param collectionPersister The collection persister
+	 * @param collectionMetadata The resolution metadata of the collection persister
 	 * @param aliasRoot The alias root for SQL alias generation.
 	 * @param tableSpace The table space to which any generated table references need to belong.
 	 *
 	 * @return The generated table expression (could be simply the root table in a joined table structure).
 	 */
 	public static Table generateTableExpression(
-			QueryableCollection collectionPersister,
+			ResolutionMetadata.CollectionMetadata collectionMetadata,
 			TableAliasGenerator.TableAliasRoot aliasRoot,
 			Table.CollectionTableSpace tableSpace) {
-		if ( collectionPersister.isOneToMany() ) {
-			Table table = generateTableExpression(
-					( Queryable ) collectionPersister.getElementPersister(),
-					aliasRoot,
-					tableSpace.getEntityElementTableSpace()
-			);
+		// the element table space (if any) has already generated its tables; reuse them so that the tables referenced
+		// during resolution are the ones which end up in the tree
+		if ( collectionMetadata.isOneToMany() ) {
+			Table table = tableSpace.getEntityElementTableSpace().getDrivingTable();
 			tableSpace.setCollectionTable( table );
 			return table;
 		}
 		else {
 			Table associationTable = generateTableReference(
-					collectionPersister.getTableName(),
+					collectionMetadata.getTableName(),
 					aliasRoot.generateCollectionTableAlias(),
 					tableSpace
 			);
 			tableSpace.setCollectionTable( associationTable );
 
-			if ( collectionPersister.isManyToMany() ) {
-				Queryable elementPersister = ( Queryable ) collectionPersister.getElementPersister();
-				Table drivingTable = generateTableExpression(
-						elementPersister,
-						aliasRoot,
-						tableSpace.getEntityElementTableSpace()
-				);
+			if ( collectionMetadata.isManyToMany() ) {
+				ResolutionMetadata.EntityMetadata elementMetadata = collectionMetadata.getElementMetadata();
+				Table drivingTable = tableSpace.getEntityElementTableSpace().getDrivingTable();
 
 				final HibernateTree join = new HibernateTree( HQLLexer.JOIN );
 				associationTable.addChild( join );
 				join.addChild( new HibernateTree( HQLLexer.LEFT, "left outer" ) );
 				join.addChild( drivingTable );
 
-				String[] entityFkColumnNames = collectionPersister.getElementColumnNames();
-				String[] entityPkColumnNames = elementPersister.getKeyColumnNames();
+				String[] entityFkColumnNames = collectionMetadata.getElementColumnNames();
+				String[] entityPkColumnNames = elementMetadata.getKeyColumnNames();
 
 				final HibernateTree on = new HibernateTree( HQLLexer.ON );
 				join.addChild( on );
@@ -31,7 +31,9 @@ package org.hibernate.sql.ast.origin.hql.resolve;
 
 import org.hibernate.engine.SessionFactoryImplementor;
 import org.hibernate.sql.ast.alias.TableAliasGenerator;
+import org.hibernate.sql.ast.origin.hql.resolve.path.PathResolutionMemo;
 import org.hibernate.sql.ast.origin.hql.resolve.path.PathResolutionStrategy;
+import org.hibernate.sql.ast.tree.Table;
 import org.hibernate.sql.ast.util.TreePrinter;
 
 /**
@@ -48,6 +50,13 @@ public interface ResolutionContext {
 	 */
 	public SessionFactoryImplementor getSessionFactoryImplementor();
 
+	/**
+	 * The (shared) resolution metadata of the session factory's persisters.
+	 *
+	 * @return The resolution metadata.
+	 */
+	public ResolutionMetadata getResolutionMetadata();
+
 	/**
 	 * The current {@link PersisterSpaceContext} for this context.  The {@link PersisterSpaceContext}
 	 * can change in relation to subqueries and such.  See {@link PersisterSpaceContext} docs for more info.
@@ -88,7 +97,22 @@ public interface ResolutionContext {
 
 	public PathResolutionStrategy getCurrentPathResolutionStrategy();
 
+	/**
+	 * The memo of path resolutions for this resolution run.
+	 *
+	 * @return The path resolution memo.
+	 */
+	public PathResolutionMemo getPathResolutionMemo();
+
 	public void registerAssociationFetch(PersisterSpace persisterSpace);
 
 	public void registerPropertyFetch(PersisterSpace persisterSpace);
+
+	/**
+	 * Register a table space created during resolution, so that its joins can be
+	 * {@link Table.TableSpace#finalizeJoins() finalized} once resolution is complete.
+	 *
+	 * @param tableSpace The table space.
+	 */
+	public void registerTableSpace(Table.TableSpace tableSpace);
 }
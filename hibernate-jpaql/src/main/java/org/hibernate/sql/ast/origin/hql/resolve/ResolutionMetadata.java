@@ -0,0 +1,444 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2008, Red Hat Middleware LLC or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Middleware LLC.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ *
+ */
+package org.hibernate.sql.ast.origin.hql.resolve;
+
+import java.lang.reflect.Array;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.hibernate.HibernateException;
+import org.hibernate.engine.SessionFactoryImplementor;
+import org.hibernate.persister.MappedTableMetadata;
+import org.hibernate.persister.collection.QueryableCollection;
+import org.hibernate.persister.entity.Queryable;
+import org.hibernate.sql.ast.util.PersisterPropertyNames;
+import org.hibernate.type.CollectionType;
+import org.hibernate.type.EntityType;
+import org.hibernate.type.Type;
+import org.hibernate.util.StringHelper;
+
+/**
+ * Immutable snapshots of the persister information needed during resolution, built once per session factory (for
+ * all of its entity and collection persisters) and shared by all resolver instances.
+ * <p/>
+ * Property information is kept in flat arrays indexed by a per-entity property id, so that resolving a path
+ * segment is a map probe plus array reads rather than a series of calls into the persister (each of which does its
+ * own lookups).  Only the property paths known up front are recorded (see {@link PersisterPropertyNames}); anything
+ * else is passed through to the persister, which keeps reporting unknown properties as before.
+ */
+public final class ResolutionMetadata {
+	private static final Logger log = LoggerFactory.getLogger( ResolutionMetadata.class );
+
+	private static final Map<SessionFactoryImplementor,ResolutionMetadata> BY_FACTORY
+			= new WeakHashMap<SessionFactoryImplementor,ResolutionMetadata>();
+
+	private final Map<String,EntityMetadata> entityMetadataByName;
+	private final Map<String,CollectionMetadata> collectionMetadataByRole;
+
+	private ResolutionMetadata(
+			Map<String,EntityMetadata> entityMetadataByName,
+			Map<String,CollectionMetadata> collectionMetadataByRole) {
+		this.entityMetadataByName = entityMetadataByName;
+		this.collectionMetadataByRole = collectionMetadataByRole;
+	}
+
+	/**
+	 * Retrieve the resolution metadata of the given session factory, building it on first access.
+	 * <p/>
+	 * The snapshots reference the persisters (and through them the session factory), so the metadata of closed
+	 * session factories is dropped here rather than left to the weak keys.
+	 *
+	 * @param sessionFactory The session factory.
+	 *
+	 * @return The resolution metadata.
+	 */
+	public static synchronized ResolutionMetadata forSessionFactory(SessionFactoryImplementor sessionFactory) {
+		ResolutionMetadata metadata = BY_FACTORY.get( sessionFactory );
+		if ( metadata == null ) {
+			Iterator<SessionFactoryImplementor> factories = BY_FACTORY.keySet().iterator();
+			while ( factories.hasNext() ) {
+				if ( factories.next().isClosed() ) {
+					factories.remove();
+				}
+			}
+			metadata = build( sessionFactory );
+			BY_FACTORY.put( sessionFactory, metadata );
+		}
+		return metadata;
+	}
+
+	/**
+	 * Locate the metadata for the given entity.
+	 *
+	 * @param entityName The entity name.
+	 *
+	 * @return The entity metadata.
+	 *
+	 * @throws HibernateException If the entity is not known to the session factory.
+	 */
+	public EntityMetadata getEntityMetadata(String entityName) {
+		EntityMetadata metadata = entityMetadataByName.get( entityName );
+		if ( metadata == null ) {
+			throw new HibernateException( "no resolution metadata for entity [" + entityName + "]" );
+		}
+		return metadata;
+	}
+
+	/**
+	 * Locate the metadata for the given collection role.
+	 *
+	 * @param role The collection role.
+	 *
+	 * @return The collection metadata.
+	 *
+	 * @throws HibernateException If the collection role is not known to the session factory.
+	 */
+	public CollectionMetadata getCollectionMetadata(String role) {
+		CollectionMetadata metadata = collectionMetadataByRole.get( role );
+		if ( metadata == null ) {
+			throw new HibernateException( "no resolution metadata for collection [" + role + "]" );
+		}
+		return metadata;
+	}
+
+	private static ResolutionMetadata build(SessionFactoryImplementor sessionFactory) {
+		final PersisterPropertyNames propertyNames = PersisterPropertyNames.forSessionFactory( sessionFactory );
+
+		final Map<String,EntityMetadata> entityMetadataByName = new HashMap<String,EntityMetadata>();
+		final Iterator entityNames = sessionFactory.getAllClassMetadata().keySet().iterator();
+		while ( entityNames.hasNext() ) {
+			final String entityName = ( String ) entityNames.next();
+			final Queryable persister = ( Queryable ) sessionFactory.getEntityPersister( entityName );
+			entityMetadataByName.put(
+					entityName,
+					new EntityMetadata( persister, propertyNames.getPropertyNames( entityName ), propertyNames )
+			);
+		}
+
+		final Map<String,CollectionMetadata> collectionMetadataByRole = new HashMap<String,CollectionMetadata>();
+		final Iterator roles = sessionFactory.getAllCollectionMetadata().keySet().iterator();
+		while ( roles.hasNext() ) {
+			final String role = ( String ) roles.next();
+			final QueryableCollection persister = ( QueryableCollection ) sessionFactory.getCollectionPersister( role );
+			final EntityMetadata elementMetadata = persister.getElementType().isEntityType()
+					? entityMetadataByName.get( persister.getElementPersister().getEntityName() )
+					: null;
+			collectionMetadataByRole.put( role, new CollectionMetadata( persister, elementMetadata ) );
+		}
+
+		log.debug(
+				"built resolution metadata for {} entities and {} collections",
+				entityMetadataByName.size(),
+				collectionMetadataByRole.size()
+		);
+		return new ResolutionMetadata( entityMetadataByName, collectionMetadataByRole );
+	}
+
+	/**
+	 * Resolution metadata for an entity persister.
+	 */
+	public static final class EntityMetadata {
+		private final Queryable persister;
+		private final PersisterPropertyNames propertyNames;
+		private final String shortName;
+		private final EntityType entityType;
+		private final String[] identifierColumnNames;
+		private final String[] keyColumnNames;
+
+		private final String sqlAliasRootBase;
+		private final String drivingTableName;
+		private final String[] drivingTableJoinColumns;
+		private final MappedTableMetadata.JoinedTable[] joinedTables;
+		private final TableExpressionTemplate tableExpressionTemplate;
+
+		private final Map<String,Integer> propertyIds;
+		private final String[] propertyPaths;
+		private final Type[] propertyTypes;
+		private final String[][] propertyColumnNames;
+		private final int[] propertyTableNumbers;
+
+		private EntityMetadata(Queryable persister, Set<String> paths, PersisterPropertyNames propertyNames) {
+			this.persister = persister;
+			this.propertyNames = propertyNames;
+			this.shortName = StringHelper.unqualifyEntityName( persister.getEntityName() );
+			this.entityType = persister.getEntityMetamodel().getEntityType();
+			this.identifierColumnNames = persister.getIdentifierColumnNames();
+			this.keyColumnNames = persister.getKeyColumnNames();
+
+			final MappedTableMetadata tableMetadata = persister.getMappedTableMetadata();
+			this.sqlAliasRootBase = tableMetadata.getSqlAliasRootBase();
+			this.drivingTableName = tableMetadata.getDrivingTableName();
+			this.drivingTableJoinColumns = tableMetadata.getIdentifierColumnNames();
+			this.joinedTables = tableMetadata.getJoinedTables();
+			this.tableExpressionTemplate = TableExpressionTemplate.build( drivingTableName, drivingTableJoinColumns, joinedTables );
+
+			final int pathCount = paths == null ? 0 : paths.size();
+			final Map<String,Integer> ids = new HashMap<String,Integer>( pathCount * 4 / 3 + 1 );
+			final String[] recordedPaths = new String[pathCount];
+			final Type[] types = new Type[pathCount];
+			final String[][] columnNames = new String[pathCount][];
+			final int[] tableNumbers = new int[pathCount];
+			int id = 0;
+			if ( paths != null ) {
+				for ( String path : paths ) {
+					try {
+						types[id] = persister.getPropertyType( path );
+						columnNames[id] = persister.toColumns( path );
+						tableNumbers[id] = persister.getSubclassPropertyTableNumber( path );
+					}
+					catch ( HibernateException e ) {
+						// left to the persister at resolution time
+						log.trace( "skipping property path [{}] of [{}] : {}", new Object[] { path, persister.getEntityName(), e.getMessage() } );
+						continue;
+					}
+					recordedPaths[id] = path.intern();
+					ids.put( recordedPaths[id], id );
+					id++;
+				}
+			}
+			this.propertyIds = ids;
+			this.propertyPaths = trim( recordedPaths, id );
+			this.propertyTypes = trim( types, id );
+			this.propertyColumnNames = trim( columnNames, id );
+			this.propertyTableNumbers = trim( tableNumbers, id );
+		}
+
+		@SuppressWarnings({ "unchecked" })
+		private static <T> T[] trim(T[] array, int length) {
+			if ( array.length == length ) {
+				return array;
+			}
+			T[] trimmed = ( T[] ) Array.newInstance( array.getClass().getComponentType(), length );
+			System.arraycopy( array, 0, trimmed, 0, length );
+			return trimmed;
+		}
+
+		private static int[] trim(int[] array, int length) {
+			if ( array.length == length ) {
+				return array;
+			}
+			int[] trimmed = new int[length];
+			System.arraycopy( array, 0, trimmed, 0, length );
+			return trimmed;
+		}
+
+		public Queryable getPersister() {
+			return persister;
+		}
+
+		public String getEntityName() {
+			return persister.getEntityName();
+		}
+
+		public String getShortName() {
+			return shortName;
+		}
+
+		public EntityType getEntityType() {
+			return entityType;
+		}
+
+		public String[] getIdentifierColumnNames() {
+			return identifierColumnNames;
+		}
+
+		public String[] getKeyColumnNames() {
+			return keyColumnNames;
+		}
+
+		public String getSqlAliasRootBase() {
+			return sqlAliasRootBase;
+		}
+
+		public String getDrivingTableName() {
+			return drivingTableName;
+		}
+
+		public String[] getDrivingTableJoinColumns() {
+			return drivingTableJoinColumns;
+		}
+
+		/**
+		 * The tables joined to the driving table; shared, and not to be modified.
+		 *
+		 * @return The joined tables.
+		 */
+		public MappedTableMetadata.JoinedTable[] getJoinedTables() {
+			return joinedTables;
+		}
+
+		public TableExpressionTemplate getTableExpressionTemplate() {
+			return tableExpressionTemplate;
+		}
+
+		/**
+		 * The number of tables making up the table space of this entity : the driving table plus the joined tables.
+		 *
+		 * @return The table count.
+		 */
+		public int getTableCount() {
+			return joinedTables.length + 1;
+		}
+
+		/**
+		 * Locate the id of a recorded property path.
+		 *
+		 * @param propertyPath The property name or path.
+		 *
+		 * @return The property id, or -1 if the path was not recorded.
+		 */
+		public int getPropertyId(String propertyPath) {
+			Integer id = propertyIds.get( propertyPath );
+			return id == null ? -1 : id.intValue();
+		}
+
+		public int getPropertyCount() {
+			return propertyPaths.length;
+		}
+
+		public String getPropertyPath(int propertyId) {
+			return propertyPaths[propertyId];
+		}
+
+		public Type getPropertyType(int propertyId) {
+			return propertyTypes[propertyId];
+		}
+
+		public String[] getPropertyColumnNames(int propertyId) {
+			return propertyColumnNames[propertyId];
+		}
+
+		public int getPropertyTableNumber(int propertyId) {
+			return propertyTableNumbers[propertyId];
+		}
+
+		public boolean containsProperty(String propertyPath) {
+			return propertyIds.containsKey( propertyPath ) || propertyNames.isPropertyName( persister, propertyPath );
+		}
+
+		public Type getPropertyType(String propertyPath) {
+			final int id = getPropertyId( propertyPath );
+			return id < 0 ? persister.getPropertyType( propertyPath ) : propertyTypes[id];
+		}
+
+		public String[] getPropertyColumnNames(String propertyPath) {
+			final int id = getPropertyId( propertyPath );
+			return id < 0 ? persister.toColumns( propertyPath ) : propertyColumnNames[id];
+		}
+
+		public int getPropertyTableNumber(String propertyPath) {
+			final int id = getPropertyId( propertyPath );
+			return id < 0 ? persister.getSubclassPropertyTableNumber( propertyPath ) : propertyTableNumbers[id];
+		}
+	}
+
+	/**
+	 * Resolution metadata for a collection persister.
+	 */
+	public static final class CollectionMetadata {
+		private final QueryableCollection persister;
+		private final EntityMetadata elementMetadata;
+		private final String shortName;
+		private final CollectionType collectionType;
+		private final String tableName;
+		private final String[] keyColumnNames;
+		private final String[] elementColumnNames;
+		private final boolean oneToMany;
+		private final boolean manyToMany;
+		private final boolean indexed;
+
+		private CollectionMetadata(QueryableCollection persister, EntityMetadata elementMetadata) {
+			this.persister = persister;
+			this.elementMetadata = elementMetadata;
+			this.shortName = StringHelper.unqualify( persister.getRole() );
+			this.collectionType = persister.getCollectionType();
+			this.tableName = persister.getTableName();
+			this.keyColumnNames = persister.getKeyColumnNames();
+			this.elementColumnNames = persister.getElementColumnNames();
+			this.oneToMany = persister.isOneToMany();
+			this.manyToMany = persister.isManyToMany();
+			this.indexed = persister.hasIndex();
+		}
+
+		public QueryableCollection getPersister() {
+			return persister;
+		}
+
+		public String getRole() {
+			return persister.getRole();
+		}
+
+		public String getShortName() {
+			return shortName;
+		}
+
+		public CollectionType getCollectionType() {
+			return collectionType;
+		}
+
+		public String getTableName() {
+			return tableName;
+		}
+
+		public String[] getKeyColumnNames() {
+			return keyColumnNames;
+		}
+
+		public String[] getElementColumnNames() {
+			return elementColumnNames;
+		}
+
+		public boolean isOneToMany() {
+			return oneToMany;
+		}
+
+		public boolean isManyToMany() {
+			return manyToMany;
+		}
+
+		public boolean hasIndex() {
+			return indexed;
+		}
+
+		public boolean areElementsEntities() {
+			return elementMetadata != null;
+		}
+
+		/**
+		 * The metadata of the element entity.
+		 *
+		 * @return The element entity metadata, or null if the elements are not entities.
+		 */
+		public EntityMetadata getElementMetadata() {
+			return elementMetadata;
+		}
+	}
+}
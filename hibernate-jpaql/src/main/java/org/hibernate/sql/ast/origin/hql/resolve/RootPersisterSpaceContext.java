@@ -49,8 +49,23 @@ import org.hibernate.QueryException;
 public class RootPersisterSpaceContext implements PersisterSpaceContext {
 	private static final Logger log = LoggerFactory.getLogger( RootPersisterSpaceContext.class );
 
+	/**
+	 * Marks a property name exposed by none of our persister spaces in {@link #propertyXref}.
+	 */
+	private static final Object NOT_EXPOSED = new Object();
+	/**
+	 * Marks a property name exposed by more than one of our persister spaces in {@link #propertyXref}.
+	 */
+	private static final Object AMBIGUOUS = new Object();
+
 	private List<PersisterSpace> persisterSpaces = new ArrayList<PersisterSpace>();
 	private Map<String,PersisterSpace> aliasXref = new HashMap<String,PersisterSpace>();
+	/**
+	 * Index of the unqualified property names looked up so far to the persister space exposing them (or one of the
+	 * {@link #NOT_EXPOSED} / {@link #AMBIGUOUS} markers).  Built lazily, as names are looked up; registering a new
+	 * persister space invalidates it.
+	 */
+	private Map<String,Object> propertyXref = new HashMap<String,Object>();
 
 	/**
 	 * {@inheritDoc}
@@ -61,6 +76,7 @@ public class RootPersisterSpaceContext implements PersisterSpaceContext {
 		}
 		persisterSpaces.add( persisterSpace );
 		aliasXref.put( persisterSpace.getSourceAlias(), persisterSpace );
+		propertyXref.clear();
 	}
 
 	/**
@@ -82,7 +98,7 @@ public class RootPersisterSpaceContext implements PersisterSpaceContext {
 	 * {@inheritDoc}
 	 */
 	public PersisterSpace locatePersisterSpaceByAlias(String alias) {
-		log.trace( "attempting to resolve [" + alias + "] as persister space alias" );
+		log.trace( "attempting to resolve [{}] as persister space alias", alias );
 		return aliasXref.get( alias );
 	}
 
@@ -90,13 +106,34 @@ public class RootPersisterSpaceContext implements PersisterSpaceContext {
 	 * {@inheritDoc}
 	 */
 	public PersisterSpace locatePersisterSpaceExposingProperty(String propertyName) {
-		log.trace( "attempting to resolve [" + propertyName + "] as unqualified property" );
-		PersisterSpace match = null;
+		log.trace( "attempting to resolve [{}] as unqualified property", propertyName );
+		Object match = propertyXref.get( propertyName );
+		if ( match == null ) {
+			match = indexProperty( propertyName );
+			propertyXref.put( propertyName, match );
+		}
+		if ( match == AMBIGUOUS ) {
+			// todo : better exception type
+			throw new QueryException( "multiple persisters contained property [" + propertyName + "]" );
+		}
+		return match == NOT_EXPOSED ? null : ( PersisterSpace ) match;
+	}
+
+	/**
+	 * Remove all registered persister spaces, returning this context to its initial (empty) state.
+	 */
+	public void clear() {
+		persisterSpaces.clear();
+		aliasXref.clear();
+		propertyXref.clear();
+	}
+
+	private Object indexProperty(String propertyName) {
+		Object match = NOT_EXPOSED;
 		for ( PersisterSpace persisterSpace : persisterSpaces ) {
 			if ( persisterSpace.containsProperty( propertyName ) ) {
-				if ( match != null ) {
-					// todo : better exception type
-					throw new QueryException( "multiple persisters contained property [" + propertyName + "]" );
+				if ( match != NOT_EXPOSED ) {
+					return AMBIGUOUS;
 				}
 				match = persisterSpace;
 			}
@@ -0,0 +1,191 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2008, Red Hat Middleware LLC or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Middleware LLC.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ *
+ */
+package org.hibernate.sql.ast.origin.hql.resolve;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.antlr.runtime.tree.Tree;
+
+import org.hibernate.persister.MappedTableMetadata;
+import org.hibernate.sql.ast.alias.TableAliasGenerator;
+import org.hibernate.sql.ast.common.HibernateTree;
+import org.hibernate.sql.ast.origin.hql.parse.HQLLexer;
+import org.hibernate.sql.ast.tree.Table;
+
+/**
+ * A prebuilt, immutable table expression for an entity persister : the driving table plus one
+ * <tt>JOIN</tt>/<tt>ON</tt> subtree per joined (subclass or secondary) table.
+ * <p/>
+ * The join subtrees are laid out once, in pre-order, in flat arrays; {@link #stamp} copies that layout into a new
+ * tree for a given alias root, filling in the table references and the aliases of the join correlations as it goes.
+ * Templates are built along with the {@link ResolutionMetadata.EntityMetadata} of the persister and so are shared
+ * between queries and threads.
+ */
+public final class TableExpressionTemplate {
+	private static final int NO_SLOT = -1;
+
+	/**
+	 * The names of the tables in the table space, the driving table first.
+	 */
+	private final String[] tableNames;
+
+	private final int[] types;
+	private final String[] texts;
+	private final int[] childCounts;
+	/**
+	 * For <tt>TABLE</tt> nodes the number of the referenced table, for <tt>ALIAS_REF</tt> nodes the number of the
+	 * table whose alias is referenced; {@link #NO_SLOT} for all other nodes.
+	 */
+	private final int[] slots;
+
+	private TableExpressionTemplate(String[] tableNames, int[] types, String[] texts, int[] childCounts, int[] slots) {
+		this.tableNames = tableNames;
+		this.types = types;
+		this.texts = texts;
+		this.childCounts = childCounts;
+		this.slots = slots;
+	}
+
+	/**
+	 * Build the template for the given entity.
+	 *
+	 * @param drivingTableName The name of the driving table.
+	 * @param drivingTableJoinColumns The columns of the driving table the joined tables join to.
+	 * @param joinedTables The joined tables.
+	 *
+	 * @return The template.
+	 */
+	static TableExpressionTemplate build(
+			String drivingTableName,
+			String[] drivingTableJoinColumns,
+			MappedTableMetadata.JoinedTable[] joinedTables) {
+		final String[] tableNames = new String[joinedTables.length + 1];
+		tableNames[0] = drivingTableName;
+
+		// generate the join subtrees once, using the table numbers as aliases, and flatten them
+		final List<HibernateTree> nodes = new ArrayList<HibernateTree>();
+		final List<Integer> slots = new ArrayList<Integer>();
+		for ( int i = 0; i < joinedTables.length; i++ ) {
+			final int tableNumber = i + 1;
+			final MappedTableMetadata.JoinedTable joinedTable = joinedTables[i];
+			tableNames[tableNumber] = joinedTable.getName();
+
+			final HibernateTree join = new HibernateTree( HQLLexer.JOIN, "join" );
+			if ( joinedTable.useInnerJoin() ) {
+				join.addChild( new HibernateTree( HQLLexer.INNER, "inner" ) );
+			}
+			else {
+				join.addChild( new HibernateTree( HQLLexer.LEFT, "left outer" ) );
+			}
+			join.addChild( new HibernateTree( HQLLexer.TABLE, Integer.toString( tableNumber ) ) );
+			final HibernateTree on = new HibernateTree( HQLLexer.ON, "on" );
+			join.addChild( on );
+			on.addChild(
+					PersisterTableExpressionGenerator.generateJoinCorrelation(
+							"0",
+							drivingTableJoinColumns,
+							Integer.toString( tableNumber ),
+							joinedTable.getKeyColumns()
+					)
+			);
+			flatten( join, nodes, slots );
+		}
+
+		final int nodeCount = nodes.size();
+		final int[] types = new int[nodeCount];
+		final String[] texts = new String[nodeCount];
+		final int[] childCounts = new int[nodeCount];
+		final int[] slotArray = new int[nodeCount];
+		for ( int i = 0; i < nodeCount; i++ ) {
+			final HibernateTree node = nodes.get( i );
+			types[i] = node.getType();
+			texts[i] = slots.get( i ) == NO_SLOT ? node.getText() : null;
+			childCounts[i] = node.getChildCount();
+			slotArray[i] = slots.get( i );
+		}
+		return new TableExpressionTemplate( tableNames, types, texts, childCounts, slotArray );
+	}
+
+	private static void flatten(HibernateTree node, List<HibernateTree> nodes, List<Integer> slots) {
+		nodes.add( node );
+		final int type = node.getType();
+		slots.add( type == HQLLexer.TABLE || type == HQLLexer.ALIAS_REF ? Integer.parseInt( node.getText() ) : NO_SLOT );
+		for ( int i = 0; i < node.getChildCount(); i++ ) {
+			flatten( ( HibernateTree ) node.getChild( i ), nodes, slots );
+		}
+	}
+
+	/**
+	 * The number of tables making up the table expression : the driving table plus the joined tables.
+	 *
+	 * @return The table count.
+	 */
+	public int getTableCount() {
+		return tableNames.length;
+	}
+
+	/**
+	 * Stamp out a new table expression from this template.
+	 *
+	 * @param aliasRoot The alias root for SQL alias generation.
+	 * @param tableSpace The table space to which the generated table references need to belong.
+	 *
+	 * @return The driving table, with the joined tables attached.
+	 */
+	public Table stamp(TableAliasGenerator.TableAliasRoot aliasRoot, Table.TableSpace tableSpace) {
+		final String[] aliases = new String[tableNames.length];
+		for ( int i = 0; i < aliases.length; i++ ) {
+			aliases[i] = aliasRoot.generate( i );
+		}
+		final Table drivingTable = new Table( tableNames[0], aliases[0], tableSpace );
+		int position = 0;
+		while ( position < types.length ) {
+			position = stamp( position, drivingTable, aliases, tableSpace );
+		}
+		return drivingTable;
+	}
+
+	private int stamp(int position, Tree parent, String[] aliases, Table.TableSpace tableSpace) {
+		final int slot = slots[position];
+		final HibernateTree node;
+		if ( slot == NO_SLOT ) {
+			node = new HibernateTree( types[position], texts[position] );
+		}
+		else if ( types[position] == HQLLexer.TABLE ) {
+			node = new Table( tableNames[slot], aliases[slot], tableSpace );
+		}
+		else {
+			node = new HibernateTree( types[position], aliases[slot] );
+		}
+		parent.addChild( node );
+
+		int next = position + 1;
+		for ( int i = 0; i < childCounts[position]; i++ ) {
+			next = stamp( next, node, aliases, tableSpace );
+		}
+		return next;
+	}
+}
@@ -0,0 +1,134 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2008, Red Hat Middleware LLC or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Middleware LLC.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ *
+ */
+
+package org.hibernate.sql.ast.origin.hql.resolve.path;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.antlr.runtime.tree.Tree;
+
+import org.hibernate.sql.ast.common.HibernateTree;
+import org.hibernate.sql.ast.origin.hql.resolve.PersisterSpace;
+
+/**
+ * Memo of path resolutions for the life of a single resolution run, so that a path repeated within a query
+ * (<tt>z.address.city</tt> in the where and order-by clauses, say) is only resolved once.
+ * <p/>
+ * Resolutions are chained : a path root is keyed by its persister space and the strategy resolving it, and each
+ * further part by the (memoized) source it is resolved against.  Sources handed out for the same path are thus the
+ * same instances, and terminal results can be looked up by source and part.  Terminal results are trees that end
+ * up in the resolved tree; the memo keeps its own clone and hands out fresh clones, token positions included.
+ * <p/>
+ * A strategy may only use the memo if resolving the same path twice has no effect beyond the first
+ * resolution; in particular its property joins must be reusable.  The <tt>variant</tt> distinguishes resolutions a
+ * strategy would perform differently depending on its context (within a function or not, e.g.).
+ */
+public class PathResolutionMemo {
+	private final Map<Key,PathedPropertyReferenceSource> sources = new HashMap<Key,PathedPropertyReferenceSource>();
+	private final Map<Key,HibernateTree> terminals = new HashMap<Key,HibernateTree>();
+
+	public PathedPropertyReferenceSource locateRoot(PersisterSpace persisterSpace, PathResolutionStrategy strategy, int variant) {
+		return sources.get( new Key( persisterSpace, strategy, variant ) );
+	}
+
+	public void registerRoot(PersisterSpace persisterSpace, PathResolutionStrategy strategy, int variant, PathedPropertyReferenceSource source) {
+		sources.put( new Key( persisterSpace, strategy, variant ), source );
+	}
+
+	public PathedPropertyReferenceSource locateIntermediate(PathedPropertyReferenceSource source, String pathPart, int variant) {
+		return sources.get( new Key( source, pathPart, variant ) );
+	}
+
+	public void registerIntermediate(PathedPropertyReferenceSource source, String pathPart, int variant, PathedPropertyReferenceSource result) {
+		sources.put( new Key( source, pathPart, variant ), result );
+	}
+
+	/**
+	 * Locate the memoized terminal resolution of the given part against the given source.
+	 *
+	 * @param source The source.
+	 * @param pathPart The terminal path part.
+	 * @param variant The resolution variant.
+	 *
+	 * @return A clone of the memoized resolution, or null.
+	 */
+	public HibernateTree locateTerminal(PathedPropertyReferenceSource source, String pathPart, int variant) {
+		final HibernateTree terminal = terminals.get( new Key( source, pathPart, variant ) );
+		return terminal == null ? null : ( HibernateTree ) copy( terminal );
+	}
+
+	public void registerTerminal(PathedPropertyReferenceSource source, String pathPart, int variant, HibernateTree result) {
+		terminals.put( new Key( source, pathPart, variant ), ( HibernateTree ) copy( result ) );
+	}
+
+	/**
+	 * Forget all memoized resolutions.
+	 */
+	public void clear() {
+		sources.clear();
+		terminals.clear();
+	}
+
+	private static Tree copy(Tree tree) {
+		final Tree copy = tree.dupNode();
+		for ( int i = 0; i < tree.getChildCount(); i++ ) {
+			copy.addChild( copy( tree.getChild( i ) ) );
+		}
+		return copy;
+	}
+
+	/**
+	 * The owner (persister space or source) is compared by identity; so is the part, when it is a strategy.
+	 */
+	private static final class Key {
+		private final Object owner;
+		private final Object part;
+		private final int variant;
+		private final int hashCode;
+
+		private Key(Object owner, Object part, int variant) {
+			this.owner = owner;
+			this.part = part;
+			this.variant = variant;
+			this.hashCode = ( System.identityHashCode( owner ) * 31 + part.hashCode() ) * 31 + variant;
+		}
+
+		public boolean equals(Object o) {
+			if ( this == o ) {
+				return true;
+			}
+			if ( !( o instanceof Key ) ) {
+				return false;
+			}
+			final Key other = ( Key ) o;
+			return owner == other.owner && variant == other.variant && part.equals( other.part );
+		}
+
+		public int hashCode() {
+			return hashCode;
+		}
+	}
+}
@@ -50,4 +50,8 @@ public class PathResolutionStrategyStack {
 	public PathResolutionStrategy getCurrent() {
 		return stack.getFirst();
 	}
+
+	public void clear() {
+		stack.clear();
+	}
 }
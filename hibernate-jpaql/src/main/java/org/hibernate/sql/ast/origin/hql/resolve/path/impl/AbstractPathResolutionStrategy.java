@@ -39,11 +39,14 @@ import org.hibernate.sql.ast.common.HibernateTree;
 import org.hibernate.sql.ast.origin.hql.resolve.PersisterSpace;
 import org.hibernate.sql.ast.origin.hql.resolve.PersisterTableExpressionGenerator;
 import org.hibernate.sql.ast.origin.hql.resolve.ResolutionContext;
+import org.hibernate.sql.ast.origin.hql.resolve.ResolutionMetadata;
+import org.hibernate.sql.ast.origin.hql.resolve.path.PathResolutionMemo;
 import org.hibernate.sql.ast.origin.hql.resolve.path.PathedPropertyReferenceSource;
 import org.hibernate.sql.ast.origin.hql.resolve.path.PathResolutionStrategy;
 import org.hibernate.sql.ast.origin.hql.parse.HQLLexer;
 import org.hibernate.sql.ast.tree.Table;
 import org.hibernate.sql.ast.util.DisplayableNode;
+import org.hibernate.sql.ast.util.TreeDiagnostics;
 import org.hibernate.sql.ast.util.TreePrinter;
 import org.hibernate.type.CollectionType;
 import org.hibernate.type.ComponentType;
@@ -62,7 +65,7 @@ public abstract class AbstractPathResolutionStrategy implements PathResolutionSt
 	private static final Logger log = LoggerFactory.getLogger( AbstractPathResolutionStrategy.class );
 
 	private final ResolutionContext resolutionContext;
-	private String pathThusFar = null;
+	private final PathSegments pathThusFar = new PathSegments();
 
 	protected AbstractPathResolutionStrategy(ResolutionContext resolutionContext) {
 		this.resolutionContext = resolutionContext;
@@ -101,20 +104,30 @@ public abstract class AbstractPathResolutionStrategy implements PathResolutionSt
 		return resolutionContext().getTreePrinter();
 	}
 
+	/**
+	 * Getter for property 'resolutionMetadata'.
+	 *
+	 * @return Value for property 'resolutionMetadata'.
+	 */
+	protected final ResolutionMetadata getResolutionMetadata() {
+		return resolutionContext().getResolutionMetadata();
+	}
+
 
 	// path ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
 
 	protected void initializePathSoFar(String root) {
-		pathThusFar = root;
+		pathThusFar.reset( root );
 	}
 
 	/**
-	 * Getter for property 'pathThusFar'.
+	 * Getter for property 'pathThusFar'.  The path is rendered on each call; meant for exception messages and
+	 * diagnostics.
 	 *
 	 * @return Value for property 'pathThusFar'.
 	 */
 	public String getPathThusFar() {
-		return pathThusFar;
+		return pathThusFar.isEmpty() ? null : pathThusFar.toString();
 	}
 
 	/**
@@ -122,8 +135,18 @@ public abstract class AbstractPathResolutionStrategy implements PathResolutionSt
 	 */
 	public final PathedPropertyReferenceSource handleRoot(PersisterSpace persisterSpace) {
 		initializePathSoFar( persisterSpace.getSourceAlias() );
-		log.trace( "handling root path source [" + pathThusFar + "]" );
-		return internalHandleRoot( persisterSpace );
+		log.trace( "handling root path source [{}]", pathThusFar );
+		if ( !isPathMemoizable() ) {
+			return internalHandleRoot( persisterSpace );
+		}
+		final PathResolutionMemo memo = resolutionContext().getPathResolutionMemo();
+		final int variant = getMemoVariant();
+		PathedPropertyReferenceSource source = memo.locateRoot( persisterSpace, this, variant );
+		if ( source == null ) {
+			source = internalHandleRoot( persisterSpace );
+			memo.registerRoot( persisterSpace, this, variant, source );
+		}
+		return source;
 	}
 
 	/**
@@ -138,9 +161,19 @@ public abstract class AbstractPathResolutionStrategy implements PathResolutionSt
 	 * {@inheritDoc}
 	 */
 	public final PathedPropertyReferenceSource handleIntermediatePathPart(PathedPropertyReferenceSource source, String pathPart) {
-		pathThusFar = ( pathThusFar == null ) ? pathPart : pathThusFar + "." + pathPart;
-		log.trace( "handling intermediate path source [" + pathThusFar + "]" );
-		return internalResolveIntermediatePathPart( source, pathPart );
+		pathThusFar.push( pathPart );
+		log.trace( "handling intermediate path source [{}]", pathThusFar );
+		if ( !isPathMemoizable() ) {
+			return internalResolveIntermediatePathPart( source, pathPart );
+		}
+		final PathResolutionMemo memo = resolutionContext().getPathResolutionMemo();
+		final int variant = getMemoVariant();
+		PathedPropertyReferenceSource result = memo.locateIntermediate( source, pathPart, variant );
+		if ( result == null ) {
+			result = internalResolveIntermediatePathPart( source, pathPart );
+			memo.registerIntermediate( source, pathPart, variant, result );
+		}
+		return result;
 	}
 
 	/**
@@ -158,13 +191,25 @@ public abstract class AbstractPathResolutionStrategy implements PathResolutionSt
 	 * {@inheritDoc}
 	 */
 	public final HibernateTree handleTerminalPathPart(PathedPropertyReferenceSource source, String pathPart) {
-		pathThusFar = ( pathThusFar == null ) ? pathPart : pathThusFar + "." + pathPart;
-		log.trace( "handling terminal path part [" + pathThusFar + "]" );
+		pathThusFar.push( pathPart );
+		log.trace( "handling terminal path part [{}]", pathThusFar );
 		try {
-			return internalResolveTerminalPathPart( source, pathPart );
+			if ( !isPathMemoizable() ) {
+				return internalResolveTerminalPathPart( source, pathPart );
+			}
+			final PathResolutionMemo memo = resolutionContext().getPathResolutionMemo();
+			final int variant = getMemoVariant();
+			HibernateTree result = memo.locateTerminal( source, pathPart, variant );
+			if ( result == null ) {
+				result = internalResolveTerminalPathPart( source, pathPart );
+				if ( result != null ) {
+					memo.registerTerminal( source, pathPart, variant, result );
+				}
+			}
+			return result;
 		}
 		finally {
-			pathThusFar = null;
+			pathThusFar.clear();
 		}
 	}
 
@@ -183,13 +228,13 @@ public abstract class AbstractPathResolutionStrategy implements PathResolutionSt
 	 * {@inheritDoc}
 	 */
 	public final PathedPropertyReferenceSource handleIntermediateIndexAccess(PathedPropertyReferenceSource source, String pathPart, HibernateTree selector) {
-		pathThusFar = ( ( pathThusFar == null ) ? pathPart : pathThusFar + "." + pathPart ) + "[]";
-		log.trace( "handling intermediate index access [" + pathThusFar + "]" );
+		pathThusFar.pushIndexed( pathPart );
+		log.trace( "handling intermediate index access [{}]", pathThusFar );
 		try {
 			return internalHandleIntermediateIndexAccess( source, pathPart, selector );
 		}
 		finally {
-			pathThusFar = null;
+			pathThusFar.clear();
 		}
 	}
 
@@ -210,13 +255,13 @@ public abstract class AbstractPathResolutionStrategy implements PathResolutionSt
 	 * {@inheritDoc}
 	 */
 	public final HibernateTree handleTerminalIndexAccess(PathedPropertyReferenceSource source, String pathPart, HibernateTree selector) {
-		pathThusFar = ( ( pathThusFar == null ) ? pathPart : pathThusFar + "." + pathPart ) + "[]";
-		log.trace( "handling terminal index access [" + pathThusFar + "]" );
+		pathThusFar.pushIndexed( pathPart );
+		log.trace( "handling terminal index access [{}]", pathThusFar );
 		try {
 			return internalHandleTerminalIndexAccess( source, pathPart, selector );
 		}
 		finally {
-			pathThusFar = null;
+			pathThusFar.clear();
 		}
 	}
 
@@ -258,7 +303,7 @@ public abstract class AbstractPathResolutionStrategy implements PathResolutionSt
 	 * @param property The property resulting in a join.
 	 */
 	protected void validateJoinCreation(PersisterSpace origin, String property) {
-		log.debug( "creating path expression implied join [" + origin.getSourceAlias() + "].[" + property + "]" );
+		log.debug( "creating path expression implied join [{}].[{}]", origin.getSourceAlias(), property );
 	}
 
 	/**
@@ -281,6 +326,28 @@ public abstract class AbstractPathResolutionStrategy implements PathResolutionSt
 		return true;
 	}
 
+	/**
+	 * May this strategy reuse path resolutions memoized earlier in the same resolution run (see
+	 * {@link PathResolutionMemo})?  Only if resolving the same path again would have no further effect, which
+	 * requires {@link #areJoinsReusable() reusable joins}; strategies observing each path they resolve must
+	 * answer false as well.
+	 *
+	 * @return True/false.
+	 */
+	protected boolean isPathMemoizable() {
+		return areJoinsReusable();
+	}
+
+	/**
+	 * Identifies the (context dependent) way this strategy currently resolves paths; memoized resolutions are only
+	 * reused for the same variant.
+	 *
+	 * @return The variant.
+	 */
+	protected int getMemoVariant() {
+		return 0;
+	}
+
 	/**
 	 * Locate (if property joins are reusable) or build an appropriate joined table.
 	 *
@@ -428,7 +495,7 @@ public abstract class AbstractPathResolutionStrategy implements PathResolutionSt
 			QueryableCollection collectionPersister = resolveCollectionPersister( lhs, collectionPropertyName );
 			Table joinedTable = createJoin( lhs, collectionPersister, null, selector );
 
-			if ( log.isTraceEnabled() ) {
+			if ( TreeDiagnostics.isTraceEnabled( log ) ) {
 				log.trace(
 						resolutionContext().getTreePrinter().renderAsString(
 								joinedTable.getParent(),
@@ -468,11 +535,13 @@ public abstract class AbstractPathResolutionStrategy implements PathResolutionSt
 	}
 
 	protected Table createJoin(PersisterSpace lhs, Queryable entityPersister, String alias) {
-		EntityType entityType = entityPersister.getEntityMetamodel().getEntityType();
+		ResolutionMetadata.EntityMetadata metadata = getResolutionMetadata().getEntityMetadata( entityPersister.getEntityName() );
+		EntityType entityType = metadata.getEntityType();
 
 		TableAliasGenerator.TableAliasRoot tableAliasRoot = resolutionContext().getTableAliasGenerator()
 				.generateSqlAliasRoot( entityPersister, alias );
-		Table.EntityTableSpace tableSpace = new Table.EntityTableSpace( entityPersister, tableAliasRoot );
+		Table.EntityTableSpace tableSpace = new Table.EntityTableSpace( metadata, tableAliasRoot );
+		resolutionContext().registerTableSpace( tableSpace );
 		Table joinedTableExpression = tableSpace.getDrivingTable();
 
 		HibernateTree join = new HibernateTree( HQLLexer.JOIN );
@@ -487,7 +556,7 @@ public abstract class AbstractPathResolutionStrategy implements PathResolutionSt
 					lhs.getTableSpace().getJoinIntoTable().getAliasText(),
 					lhs.getTableSpace().getJoinIntoColumns(),
 					joinedTableExpression.getAliasText(),
-					entityPersister.getKeyColumnNames()
+					metadata.getKeyColumnNames()
 			);
 		}
 		else {
@@ -496,7 +565,7 @@ public abstract class AbstractPathResolutionStrategy implements PathResolutionSt
 					lhs.getTableSpace().getContainingTable( lhsJoinProperty ).getAliasText(),
 					lhs.getTableSpace().getPropertyColumnNames( lhsJoinProperty ),
 					joinedTableExpression.getAliasText(),
-					entityPersister.getKeyColumnNames()
+					metadata.getKeyColumnNames()
 			);
 		}
 
@@ -508,14 +577,16 @@ public abstract class AbstractPathResolutionStrategy implements PathResolutionSt
 	}
 
 	protected Table createJoin(PersisterSpace lhs, QueryableCollection collectionPersister, String sourceAlias, HibernateTree extraJoinConditions) {
-		CollectionType collectionType = collectionPersister.getCollectionType();
+		ResolutionMetadata.CollectionMetadata metadata = getResolutionMetadata().getCollectionMetadata( collectionPersister.getRole() );
+		CollectionType collectionType = metadata.getCollectionType();
 
 		TableAliasGenerator.TableAliasRoot tableAliasRoot = resolutionContext().getTableAliasGenerator()
 				.generateSqlAliasRoot( collectionPersister, sourceAlias );
-		Table.CollectionTableSpace tableSpace = new Table.CollectionTableSpace( collectionPersister, tableAliasRoot );
+		Table.CollectionTableSpace tableSpace = new Table.CollectionTableSpace( metadata, tableAliasRoot );
+		resolutionContext().registerTableSpace( tableSpace );
 
 		Table collectionTableExpression = PersisterTableExpressionGenerator.generateTableExpression(
-				collectionPersister,
+				metadata,
 				tableAliasRoot,
 				tableSpace
 		);
@@ -532,7 +603,7 @@ public abstract class AbstractPathResolutionStrategy implements PathResolutionSt
 					lhs.getTableSpace().getJoinIntoTable().getAliasText(),
 					lhs.getTableSpace().getJoinIntoColumns(),
 					collectionTableExpression.getAliasText(),
-					collectionPersister.getKeyColumnNames()
+					metadata.getKeyColumnNames()
 			);
 		}
 		else {
@@ -541,7 +612,7 @@ public abstract class AbstractPathResolutionStrategy implements PathResolutionSt
 					lhs.getTableSpace().getContainingTable( lhsJoinProperty ).getAliasText(),
 					lhs.getTableSpace().getPropertyColumnNames( lhsJoinProperty ),
 					collectionTableExpression.getAliasText(),
-					collectionPersister.getKeyColumnNames()
+					metadata.getKeyColumnNames()
 			);
 		}
 
@@ -136,7 +136,9 @@ public class BasicPathResolutionStrategySupport extends AbstractPathResolutionSt
 		public HibernateTree handleTerminalPathPart(String name) {
 			if ( lhs.getPropertyType( name ).isEntityType() ) {
 				if ( shouldTerminalEntityPropertyForceJoin() ) {
-					locateOrBuildPropertyJoinedTable( lhs, name, null, false, false );
+					// the associated entity is referenced as a whole
+					locateOrBuildPropertyJoinedTable( lhs, name, null, false, false )
+							.getTableSpace().markAllTablesReferenced();
 				}
 			}
 			return generatePropertyColumnList( lhs, name );
@@ -249,7 +251,8 @@ public class BasicPathResolutionStrategySupport extends AbstractPathResolutionSt
 				PersisterSpace rhs = joinedTable.getTableSpace().getPersisterSpace();
 				if ( type.isEntityType() ) {
 					if ( shouldTerminalEntityPropertyForceJoin() ) {
-						locateOrBuildPropertyJoinedTable( rhs, name, null, false, false );
+						locateOrBuildPropertyJoinedTable( rhs, name, null, false, false )
+								.getTableSpace().markAllTablesReferenced();
 					}
 				}
 				return generatePropertyColumnList( rhs, name );
@@ -277,6 +280,10 @@ public class BasicPathResolutionStrategySupport extends AbstractPathResolutionSt
 		return false;
 	}
 
+	protected int getMemoVariant() {
+		return shouldTerminalEntityPropertyForceJoin() ? 1 : 0;
+	}
+
 	protected class CollectionIntermediatePathSource extends AbstractPathedPropertyReferenceSource {
 		private final PersisterSpace lhs;
 		private final String propertyName;
@@ -71,4 +71,9 @@ public class OnFragmentPathResolutionStrategy extends BasicPathResolutionStrateg
 		}
 		return super.internalHandleRoot( persisterSpace );
 	}
+
+	protected boolean isPathMemoizable() {
+		// we need to see the root of each path
+		return false;
+	}
 }
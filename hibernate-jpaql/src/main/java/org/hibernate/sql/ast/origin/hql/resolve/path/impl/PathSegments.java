@@ -0,0 +1,112 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2008, Red Hat Middleware LLC or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Middleware LLC.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ *
+ */
+package org.hibernate.sql.ast.origin.hql.resolve.path.impl;
+
+/**
+ * The parts of a property path processed so far, as a stack of references to the (already existing) part names.
+ * Nothing is concatenated until the path is actually needed as a string, for an exception message or a diagnostic
+ * say, through {@link #toString()}.
+ * <p/>
+ * A strategy reuses the same instance for every path it resolves.
+ */
+final class PathSegments {
+	private static final int INITIAL_CAPACITY = 8;
+
+	private String[] parts;
+	private boolean[] indexed;
+	private int depth;
+
+	PathSegments() {
+		this.parts = new String[INITIAL_CAPACITY];
+		this.indexed = new boolean[INITIAL_CAPACITY];
+	}
+
+	/**
+	 * Start a new path.
+	 *
+	 * @param root The path root (the persister alias).
+	 */
+	void reset(String root) {
+		clear();
+		push( root );
+	}
+
+	void clear() {
+		for ( int i = 0; i < depth; i++ ) {
+			parts[i] = null;
+		}
+		depth = 0;
+	}
+
+	boolean isEmpty() {
+		return depth == 0;
+	}
+
+	void push(String part) {
+		push( part, false );
+	}
+
+	/**
+	 * Push a part on which an index operation is applied (<tt>part[]</tt>).
+	 *
+	 * @param part The (collection) part.
+	 */
+	void pushIndexed(String part) {
+		push( part, true );
+	}
+
+	private void push(String part, boolean isIndexed) {
+		if ( depth == parts.length ) {
+			final String[] newParts = new String[depth * 2];
+			System.arraycopy( parts, 0, newParts, 0, depth );
+			parts = newParts;
+			final boolean[] newIndexed = new boolean[depth * 2];
+			System.arraycopy( indexed, 0, newIndexed, 0, depth );
+			indexed = newIndexed;
+		}
+		parts[depth] = part;
+		indexed[depth] = isIndexed;
+		depth++;
+	}
+
+	/**
+	 * Render the path.
+	 *
+	 * @return The path, as a string; empty if there is none.
+	 */
+	public String toString() {
+		final StringBuilder buffer = new StringBuilder();
+		for ( int i = 0; i < depth; i++ ) {
+			if ( i > 0 ) {
+				buffer.append( '.' );
+			}
+			buffer.append( parts[i] );
+			if ( indexed[i] ) {
+				buffer.append( "[]" );
+			}
+		}
+		return buffer.toString();
+	}
+}
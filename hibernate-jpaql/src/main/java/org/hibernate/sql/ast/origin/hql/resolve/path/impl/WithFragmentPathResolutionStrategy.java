@@ -121,4 +121,10 @@ public class WithFragmentPathResolutionStrategy extends BasicPathResolutionStrat
 		// todo : why not???
 		throw new HibernateException( "Path expressions [" + origin.getSourceAlias() + "." + property + "] within 'with clause' cannot result in physical join" );
 	}
+
+	@Override
+	protected boolean isPathMemoizable() {
+		// we need to see the base property of each path
+		return false;
+	}
 }
@@ -62,8 +62,12 @@ public class ContextualOrderByParser extends OrderByParser {
 	@Override
 	protected boolean isPropertyName(String text) {
 		log.trace( "Checking property name [" + text + "]" );
+		final ColumnMapper columnMapper = context.getColumnMapper();
+		if ( columnMapper instanceof PropertyAwareColumnMapper ) {
+			return ( ( PropertyAwareColumnMapper ) columnMapper ).isPropertyReference( text );
+		}
 		try {
-			return context.getColumnMapper().map( text ) != null;
+			return columnMapper.map( text ) != null;
 		}
 		catch ( Throwable t ) {
 			return false;
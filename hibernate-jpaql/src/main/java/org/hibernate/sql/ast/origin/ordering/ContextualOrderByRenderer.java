@@ -26,7 +26,6 @@ import java.util.List;
 import org.antlr.runtime.CommonToken;
 import org.antlr.runtime.tree.TreeNodeStream;
 import org.antlr.stringtemplate.StringTemplate;
-import org.antlr.stringtemplate.StringTemplateGroup;
 
 import org.hibernate.dialect.function.SQLFunction;
 import org.hibernate.sql.ast.render.OrderByRenderer;
@@ -38,47 +37,16 @@ import org.hibernate.sql.ast.render.OrderByRenderer;
  */
 public class ContextualOrderByRenderer extends OrderByRenderer {
 	private final TranslationContext translationContext;
-
-	private final StringTemplate quotedIdentifierTemplate;
-
-	private final StringTemplate basicFunctionNoArgsWithoutParens;
-	private final StringTemplate basicFunctionNoArgsWithParens;
-	private final StringTemplate basicFunctionWithArgs;
-
-	private final StringTemplate castFunction;
-	private final StringTemplate trimfunction;
+	private final OrderByTemplates templates;
 
 	public ContextualOrderByRenderer(
 			TreeNodeStream input,
 			TranslationContext translationContext,
-			StringTemplateGroup stringTemplateGroup) {
+			OrderByTemplates templates) {
 		super( input );
-		setTemplateLib( stringTemplateGroup );
+		setTemplateLib( templates.getGroup() );
 		this.translationContext = translationContext;
-
-		// ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
-        // todo : eventually get these directly from the Dialect
-		quotedIdentifierTemplate = buildQuotedIdentiferTemplate();
-
-		basicFunctionNoArgsWithoutParens = new StringTemplate( getTemplateLib(), "<name>" );
-		basicFunctionNoArgsWithoutParens.defineFormalArgument( "name" );
-
-		basicFunctionNoArgsWithParens = new StringTemplate( getTemplateLib(), "<name>()" );
-		basicFunctionNoArgsWithParens.defineFormalArgument( "name" );
-
-		basicFunctionWithArgs = new StringTemplate( getTemplateLib(), "<name>(<arguments; separator=\", \">)" );
-		basicFunctionWithArgs.defineFormalArgument( "name" );
-		basicFunctionWithArgs.defineFormalArgument( "arguments" );
-
-		castFunction = new StringTemplate( getTemplateLib(), "cast(<expression> as <datatype>)" );
-		castFunction.defineFormalArgument( "expression" );
-		castFunction.defineFormalArgument( "datatype" );
-
-		trimfunction = new StringTemplate( getTemplateLib(), "trim(<trimSpec> <trimCharacter> from <trimSource >)" );
-		trimfunction.defineFormalArgument( "trimSpec" );
-		trimfunction.defineFormalArgument( "trimCharacter" );
-		trimfunction.defineFormalArgument( "trimSource" );
-		// ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+		this.templates = templates;
 	}
 
 	@Override
@@ -86,7 +54,7 @@ public class ContextualOrderByRenderer extends OrderByRenderer {
         String identifierText = recognizedIdentifierToken.getText();
         if ( identifierText.startsWith( "`" ) ) {
             identifierText = identifierText.substring( 1, identifierText.length() - 1 );
-            StringTemplate template = quotedIdentifierTemplate.getInstanceOf();
+            StringTemplate template = templates.newQuotedIdentifier();
             template.setAttribute( "identifier", identifierText );
 			return template;
         }
@@ -95,27 +63,18 @@ public class ContextualOrderByRenderer extends OrderByRenderer {
         }
     }
 
-    private StringTemplate buildQuotedIdentiferTemplate() {
-		String templateContent = translationContext.getDialect().openQuote() +
-				"<identifier>" +
-				translationContext.getDialect().closeQuote();
-        StringTemplate template = new StringTemplate( getTemplateLib(), templateContent );
-        template.defineFormalArgument( "identifier" );
-        return template;
-    }
-
 	@Override
 	protected StringTemplate basicFunctionTemplate(String functionName, List arguments) {
 		if ( arguments == null || arguments.isEmpty() ) {
 			SQLFunction sqlFunction = translationContext.getSqlFunctionRegistry().findSQLFunction( "functionName" );
 			StringTemplate template = sqlFunction.hasParenthesesIfNoArguments()
-					? basicFunctionNoArgsWithParens
-					: basicFunctionNoArgsWithoutParens;
+					? templates.newBasicFunctionNoArgsWithParens()
+					: templates.newBasicFunctionNoArgsWithoutParens();
 			template.setAttribute( "name", functionName );
 			return template;
 		}
 		else {
-			StringTemplate template = basicFunctionWithArgs.getInstanceOf();
+			StringTemplate template = templates.newBasicFunctionWithArgs();
 			template.setAttribute( "name", functionName );
 			template.setAttribute( "arguments", arguments );
 			return template;
@@ -124,7 +83,7 @@ public class ContextualOrderByRenderer extends OrderByRenderer {
 
 	@Override
 	protected StringTemplate castFunctionTemplate(StringTemplate expression, String datatype) {
-		StringTemplate template = castFunction.getInstanceOf();
+		StringTemplate template = templates.newCastFunction();
 		template.setAttribute( "expression", expression );
 		template.setAttribute( "datatype", datatype );
 		return template;
@@ -132,7 +91,7 @@ public class ContextualOrderByRenderer extends OrderByRenderer {
 
 	@Override
     protected StringTemplate trimFunctionTemplate(StringTemplate trimSpec, StringTemplate trimCharacter, StringTemplate trimSource) {
-		StringTemplate template = trimfunction.getInstanceOf();
+		StringTemplate template = templates.newTrimFunction();
 		template.setAttribute( "trimSpec", trimSpec );
 		template.setAttribute( "trimCharacter", trimCharacter );
 		template.setAttribute( "trimSource", trimSource );
@@ -0,0 +1,57 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2008, Red Hat Middleware LLC or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Middleware LLC.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ *
+ */
+package org.hibernate.sql.ast.origin.ordering;
+
+import org.hibernate.persister.entity.Queryable;
+import org.hibernate.sql.ast.util.PersisterPropertyNames;
+
+/**
+ * Maps property references against an entity persister (typically the element persister of a collection whose
+ * <tt>order-by</tt> is being translated), answering property checks from the precomputed
+ * {@link PersisterPropertyNames}, which are looked up once when the mapper is built.
+ *
+ * @see org.hibernate.sql.Template#renderOrderByStringTemplate(String,Queryable,org.hibernate.dialect.Dialect,org.hibernate.dialect.function.SQLFunctionRegistry)
+ */
+public class EntityPersisterColumnMapper implements PropertyAwareColumnMapper {
+	private final Queryable persister;
+	private final PersisterPropertyNames propertyNames;
+
+	public EntityPersisterColumnMapper(Queryable persister) {
+		this.persister = persister;
+		this.propertyNames = PersisterPropertyNames.forSessionFactory( persister.getFactory() );
+	}
+
+	public Queryable getPersister() {
+		return persister;
+	}
+
+	public String[] map(String reference) {
+		return persister.toColumns( reference );
+	}
+
+	public boolean isPropertyReference(String reference) {
+		return propertyNames.isPropertyName( persister, reference );
+	}
+}
@@ -28,7 +28,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.hibernate.HibernateException;
-import org.hibernate.sql.ast.util.TreePrinter;
+import org.hibernate.sql.ast.util.TreeDiagnostics;
 import org.hibernate.sql.ast.origin.hql.parse.HQLLexer;
 
 import org.antlr.runtime.ANTLRStringStream;
@@ -36,9 +36,6 @@ import org.antlr.runtime.CommonTokenStream;
 import org.antlr.runtime.RecognitionException;
 import org.antlr.runtime.tree.Tree;
 import org.antlr.runtime.tree.CommonTreeNodeStream;
-import org.antlr.stringtemplate.StringTemplateGroup;
-import org.antlr.stringtemplate.CommonGroupLoader;
-import org.antlr.stringtemplate.StringTemplateErrorListener;
 
 /**
  * A translator which coordinates translation of an <tt>order-by</tt> mapping.
@@ -68,9 +65,8 @@ public class OrderByFragmentTranslator {
 		try {
             orderByTree = ( Tree ) parser.orderByFragment().getTree();
 
-            if ( log.isTraceEnabled() ) {
-                TreePrinter printer = new TreePrinter( OrderByParser.class );
-                log.trace( printer.renderAsString( orderByTree, "--- {order-by fragment} ---" ) );
+            if ( TreeDiagnostics.ENABLED ) {
+                TreeDiagnostics.trace( log, OrderByParser.class, orderByTree, "--- {order-by fragment} ---" );
             }
 		}
 		catch ( HibernateException e ) {
@@ -80,22 +76,11 @@ public class OrderByFragmentTranslator {
 			throw new HibernateException( "Unable to parse order-by fragment", t );
 		}
 
-		// Load the string templates...
-		CommonGroupLoader groupLoader = new CommonGroupLoader(
-				"org/hibernate/sql/ast/template/",
-				new StringTemplateErrorListener() {
-					public void error(String s, Throwable throwable) {
-						throw new RuntimeException( s, throwable );
-					}
-
-					public void warning(String s) {
-						System.out.println( "GROUP-LOADER : " + s );
-					}
-				}
+		ContextualOrderByRenderer renderer = new ContextualOrderByRenderer(
+				new CommonTreeNodeStream( orderByTree ),
+				context,
+				OrderByTemplates.forDialect( context.getDialect() )
 		);
-		StringTemplateGroup.registerGroupLoader( groupLoader );
-		StringTemplateGroup stringTemplateGroup = groupLoader.loadGroup( "OrderBy" );
-		ContextualOrderByRenderer renderer = new ContextualOrderByRenderer( new CommonTreeNodeStream( orderByTree ), context, stringTemplateGroup );
 
 		try {
 			return renderer.orderByFragment().st.toString();
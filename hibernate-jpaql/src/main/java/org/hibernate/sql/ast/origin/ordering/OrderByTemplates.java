@@ -0,0 +1,174 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2008, Red Hat Middleware LLC or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Middleware LLC.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ *
+ */
+package org.hibernate.sql.ast.origin.ordering;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.antlr.stringtemplate.CommonGroupLoader;
+import org.antlr.stringtemplate.StringTemplate;
+import org.antlr.stringtemplate.StringTemplateErrorListener;
+import org.antlr.stringtemplate.StringTemplateGroup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.hibernate.HibernateException;
+import org.hibernate.dialect.Dialect;
+
+/**
+ * The compiled string templates used to render <tt>order-by</tt> fragments for a given {@link Dialect}.
+ * <p/>
+ * The <tt>OrderBy</tt> template group is loaded once and shared; the templates held here are prototypes which
+ * are never handed out directly, callers always get a fresh {@link StringTemplate#getInstanceOf() instance}.  That
+ * makes a single instance safe to share between threads (and translators), which is important since
+ * <tt>order-by</tt> mappings are translated in bulk while the session factory is being built.
+ */
+public class OrderByTemplates {
+	private static final Logger log = LoggerFactory.getLogger( OrderByTemplates.class );
+
+	public static final String TEMPLATE_ROOT = "org/hibernate/sql/ast/template/";
+	public static final String GROUP_NAME = "OrderBy";
+
+	private static StringTemplateGroup sharedGroup;
+	private static final Map<Dialect,OrderByTemplates> templatesByDialect = new WeakHashMap<Dialect,OrderByTemplates>();
+
+	/**
+	 * Locate the templates for the given dialect, building them on first request.
+	 *
+	 * @param dialect The dialect for which to render.
+	 *
+	 * @return The dialect's templates.
+	 */
+	public static OrderByTemplates forDialect(Dialect dialect) {
+		synchronized ( templatesByDialect ) {
+			OrderByTemplates templates = templatesByDialect.get( dialect );
+			if ( templates == null ) {
+				templates = new OrderByTemplates( getSharedGroup(), dialect );
+				templatesByDialect.put( dialect, templates );
+			}
+			return templates;
+		}
+	}
+
+	private static synchronized StringTemplateGroup getSharedGroup() {
+		if ( sharedGroup == null ) {
+			sharedGroup = loadGroup();
+		}
+		return sharedGroup;
+	}
+
+	private static StringTemplateGroup loadGroup() {
+		log.debug( "loading {} string template group", GROUP_NAME );
+		// the loader is used directly rather than registered with StringTemplateGroup, which is global state
+		CommonGroupLoader groupLoader = new CommonGroupLoader(
+				TEMPLATE_ROOT,
+				new StringTemplateErrorListener() {
+					public void error(String s, Throwable throwable) {
+						throw new HibernateException( s, throwable );
+					}
+
+					public void warning(String s) {
+						log.warn( "GROUP-LOADER : {}", s );
+					}
+				}
+		);
+		StringTemplateGroup group = groupLoader.loadGroup( GROUP_NAME );
+		if ( group == null ) {
+			throw new HibernateException( "Unable to locate string template group [" + TEMPLATE_ROOT + GROUP_NAME + "]" );
+		}
+		return group;
+	}
+
+	private final StringTemplateGroup group;
+
+	private final StringTemplate quotedIdentifier;
+
+	private final StringTemplate basicFunctionNoArgsWithoutParens;
+	private final StringTemplate basicFunctionNoArgsWithParens;
+	private final StringTemplate basicFunctionWithArgs;
+
+	private final StringTemplate castFunction;
+	private final StringTemplate trimFunction;
+
+	private OrderByTemplates(StringTemplateGroup group, Dialect dialect) {
+		this.group = group;
+
+		// todo : eventually get these directly from the Dialect
+		quotedIdentifier = new StringTemplate( group, dialect.openQuote() + "<identifier>" + dialect.closeQuote() );
+		quotedIdentifier.defineFormalArgument( "identifier" );
+
+		basicFunctionNoArgsWithoutParens = new StringTemplate( group, "<name>" );
+		basicFunctionNoArgsWithoutParens.defineFormalArgument( "name" );
+
+		basicFunctionNoArgsWithParens = new StringTemplate( group, "<name>()" );
+		basicFunctionNoArgsWithParens.defineFormalArgument( "name" );
+
+		basicFunctionWithArgs = new StringTemplate( group, "<name>(<arguments; separator=\", \">)" );
+		basicFunctionWithArgs.defineFormalArgument( "name" );
+		basicFunctionWithArgs.defineFormalArgument( "arguments" );
+
+		castFunction = new StringTemplate( group, "cast(<expression> as <datatype>)" );
+		castFunction.defineFormalArgument( "expression" );
+		castFunction.defineFormalArgument( "datatype" );
+
+		trimFunction = new StringTemplate( group, "trim(<trimSpec> <trimCharacter> from <trimSource >)" );
+		trimFunction.defineFormalArgument( "trimSpec" );
+		trimFunction.defineFormalArgument( "trimCharacter" );
+		trimFunction.defineFormalArgument( "trimSource" );
+	}
+
+	/**
+	 * The shared <tt>OrderBy</tt> template group, to be used as the renderer's template library.
+	 *
+	 * @return The template group.
+	 */
+	public StringTemplateGroup getGroup() {
+		return group;
+	}
+
+	public StringTemplate newQuotedIdentifier() {
+		return quotedIdentifier.getInstanceOf();
+	}
+
+	public StringTemplate newBasicFunctionNoArgsWithoutParens() {
+		return basicFunctionNoArgsWithoutParens.getInstanceOf();
+	}
+
+	public StringTemplate newBasicFunctionNoArgsWithParens() {
+		return basicFunctionNoArgsWithParens.getInstanceOf();
+	}
+
+	public StringTemplate newBasicFunctionWithArgs() {
+		return basicFunctionWithArgs.getInstanceOf();
+	}
+
+	public StringTemplate newCastFunction() {
+		return castFunction.getInstanceOf();
+	}
+
+	public StringTemplate newTrimFunction() {
+		return trimFunction.getInstanceOf();
+	}
+}
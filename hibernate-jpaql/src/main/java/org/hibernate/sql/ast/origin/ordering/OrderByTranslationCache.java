@@ -0,0 +1,101 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2008, Red Hat Middleware LLC or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Middleware LLC.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ *
+ */
+package org.hibernate.sql.ast.origin.ordering;
+
+import org.hibernate.dialect.Dialect;
+import org.hibernate.sql.ast.util.BoundedTreeCache;
+import org.hibernate.sql.ast.util.WeakIdentityMap;
+
+/**
+ * Memoizes <tt>order-by</tt> fragment translations.  The same handful of fragments tend to be shared by many
+ * collection mappings, and a translation is fully determined by the fragment, what its property references are
+ * mapped against (the collection role, or the element entity shared by many roles) and the {@link Dialect}, so
+ * there is no need to lex, parse and render each time.
+ * <p/>
+ * Translations are held per dialect, which is only weakly referenced, in a least-recently-used cache bounded by
+ * the number of translations; the cached values are plain strings.  Mappers which are not deterministic should
+ * implement {@link VolatileColumnMapper} to opt out of caching.
+ */
+public class OrderByTranslationCache {
+	public static final int DEFAULT_MAX_ENTRIES = 1000;
+
+	private final int maxEntries;
+	private final WeakIdentityMap<Dialect,BoundedTreeCache<String>> translationsByDialect =
+			new WeakIdentityMap<Dialect,BoundedTreeCache<String>>();
+
+	public OrderByTranslationCache() {
+		this( DEFAULT_MAX_ENTRIES );
+	}
+
+	/**
+	 * Constructs a cache.
+	 *
+	 * @param maxEntries The maximum number of translations to keep per dialect.
+	 */
+	public OrderByTranslationCache(int maxEntries) {
+		this.maxEntries = maxEntries;
+	}
+
+	/**
+	 * Retrieve the translation of the given fragment, performing (and caching) it if needed.
+	 *
+	 * @param fragment The <tt>order-by</tt> mapping fragment to be translated.
+	 * @param mappingName What the context's column mapper maps property references against (the collection role,
+	 * or the element entity name); null if the translation should not be cached.
+	 * @param context The translation context.
+	 *
+	 * @return The translated fragment.
+	 */
+	public String render(String fragment, String mappingName, TranslationContext context) {
+		final Dialect dialect = context.getDialect();
+		if ( mappingName == null || dialect == null || context.getColumnMapper() instanceof VolatileColumnMapper ) {
+			return new OrderByFragmentTranslator( context ).render( fragment );
+		}
+
+		BoundedTreeCache<String> translations = translationsByDialect.get( dialect );
+		if ( translations == null ) {
+			translations = translationsByDialect.putIfAbsent(
+					dialect,
+					new BoundedTreeCache<String>( maxEntries, Integer.MAX_VALUE )
+			);
+		}
+		// entity names and collection roles contain no whitespace
+		final String key = mappingName + ' ' + fragment;
+		String translation = translations.get( key );
+		if ( translation == null ) {
+			// a concurrent duplicate translation is harmless
+			translation = new OrderByFragmentTranslator( context ).render( fragment );
+			translations.put( key, translation, 1 );
+		}
+		return translation;
+	}
+
+	/**
+	 * Discard all cached translations.
+	 */
+	public void clear() {
+		translationsByDialect.clear();
+	}
+}
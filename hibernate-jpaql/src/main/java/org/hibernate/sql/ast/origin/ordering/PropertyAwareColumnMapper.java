@@ -0,0 +1,41 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2008, Red Hat Middleware LLC or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Middleware LLC.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ *
+ */
+package org.hibernate.sql.ast.origin.ordering;
+
+/**
+ * A {@link ColumnMapper} which can tell whether a reference names a mapped property without attempting (and
+ * failing) to {@link #map} it.  The order-by parser probes every bare identifier this way, and most of them are
+ * plain column names.
+ */
+public interface PropertyAwareColumnMapper extends ColumnMapper {
+	/**
+	 * Does the given reference name a mapped property?  Never throws for unknown references.
+	 *
+	 * @param reference The property reference name.
+	 *
+	 * @return True if {@link #map} would resolve the reference to columns; false otherwise.
+	 */
+	public boolean isPropertyReference(String reference);
+}
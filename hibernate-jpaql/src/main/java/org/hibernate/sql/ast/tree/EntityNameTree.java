@@ -4,6 +4,7 @@ import java.util.List;
 
 import org.antlr.runtime.CommonToken;
 import org.antlr.runtime.Token;
+import org.antlr.runtime.tree.Tree;
 import org.hibernate.sql.ast.common.HibernateTree;
 
 public class EntityNameTree extends HibernateTree {
@@ -26,6 +27,16 @@ public class EntityNameTree extends HibernateTree {
 		this.entityNames = entityNames;
 	}
 
+	private EntityNameTree(EntityNameTree entityNameTree) {
+		super(entityNameTree);
+		this.entityNames = entityNameTree.entityNames;
+		this.outputText = entityNameTree.outputText;
+	}
+
+	public Tree dupNode() {
+		return new EntityNameTree(this);
+	}
+
 	private Token createToken(Token fromToken) {
 		return new CommonToken(fromToken);
 	}
@@ -0,0 +1,189 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2008, Red Hat Middleware LLC or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Middleware LLC.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ *
+ */
+package org.hibernate.sql.ast.tree;
+
+import org.antlr.runtime.Token;
+import org.antlr.runtime.tree.CommonTree;
+import org.antlr.runtime.tree.Tree;
+
+import org.hibernate.sql.ast.common.HibernateTree;
+import org.hibernate.sql.ast.origin.hql.parse.HQLLexer;
+import org.hibernate.sql.ast.util.TokenNames;
+
+/**
+ * An immutable, compact snapshot of a tree (typically the output of the resolver) which can safely be shared
+ * between threads.
+ * <p/>
+ * Only the token type and text of each node are retained; all the contextual state hanging off the live nodes
+ * ({@link Table.TableSpace table spaces}, persister spaces, alias roots, ...) is dropped.  The nodes are laid out
+ * in flat arrays in pre-order, node <tt>0</tt> being the root.  The texts naming the node type (those of the
+ * imaginary nodes and keywords, as opposed to identifiers and literals) are interned; others are kept as is.
+ *
+ * @see #freeze(Tree)
+ * @see #thaw()
+ */
+public final class FrozenTree {
+	private static final TokenNames TOKEN_NAMES = TokenNames.forVocabulary( HQLLexer.class );
+
+	private final int[] types;
+	private final String[] texts;
+	private final int[] childCounts;
+	/**
+	 * The (exclusive) index at which the subtree rooted at each node ends; which is also the index of the next
+	 * sibling of that node, if any.
+	 */
+	private final int[] subtreeEnds;
+
+	private FrozenTree(int[] types, String[] texts, int[] childCounts, int[] subtreeEnds) {
+		this.types = types;
+		this.texts = texts;
+		this.childCounts = childCounts;
+		this.subtreeEnds = subtreeEnds;
+	}
+
+	/**
+	 * Take an immutable snapshot of the given tree.
+	 *
+	 * @param tree The tree to freeze.
+	 *
+	 * @return The frozen form.
+	 */
+	public static FrozenTree freeze(Tree tree) {
+		final int nodeCount = countNodes( tree );
+		final int[] types = new int[nodeCount];
+		final String[] texts = new String[nodeCount];
+		final int[] childCounts = new int[nodeCount];
+		final int[] subtreeEnds = new int[nodeCount];
+		int filled = fill( tree, 0, types, texts, childCounts, subtreeEnds );
+		assert filled == nodeCount;
+		return new FrozenTree( types, texts, childCounts, subtreeEnds );
+	}
+
+	private static int countNodes(Tree tree) {
+		int count = 1;
+		for ( int i = 0; i < tree.getChildCount(); i++ ) {
+			count += countNodes( tree.getChild( i ) );
+		}
+		return count;
+	}
+
+	private static int fill(Tree tree, int position, int[] types, String[] texts, int[] childCounts, int[] subtreeEnds) {
+		types[position] = tree.getType();
+		texts[position] = internTypeName( tree.getType(), extractText( tree ) );
+		childCounts[position] = tree.getChildCount();
+		int next = position + 1;
+		for ( int i = 0; i < tree.getChildCount(); i++ ) {
+			next = fill( tree.getChild( i ), next, types, texts, childCounts, subtreeEnds );
+		}
+		subtreeEnds[position] = next;
+		return next;
+	}
+
+	private static String extractText(Tree tree) {
+		if ( tree instanceof CommonTree ) {
+			// use the token text; some node types (Table e.g.) override getText() for display purposes
+			final Token token = ( ( CommonTree ) tree ).getToken();
+			return token == null ? null : token.getText();
+		}
+		return tree.getText();
+	}
+
+	private static String internTypeName(int type, String text) {
+		if ( text == null ) {
+			return null;
+		}
+		final String typeName = TOKEN_NAMES.findName( type );
+		return typeName != null && typeName.equalsIgnoreCase( text ) ? text.intern() : text;
+	}
+
+	public int getNodeCount() {
+		return types.length;
+	}
+
+	public int getType(int node) {
+		return types[node];
+	}
+
+	public String getText(int node) {
+		return texts[node];
+	}
+
+	public int getChildCount(int node) {
+		return childCounts[node];
+	}
+
+	/**
+	 * Locate the index-th child of the given node.
+	 *
+	 * @param node The parent node.
+	 * @param index The position of the child amongst its siblings.
+	 *
+	 * @return The child node.
+	 */
+	public int getChild(int node, int index) {
+		if ( index < 0 || index >= childCounts[node] ) {
+			throw new IndexOutOfBoundsException( "node " + node + " has no child at position " + index );
+		}
+		int child = node + 1;
+		for ( int i = 0; i < index; i++ ) {
+			child = subtreeEnds[child];
+		}
+		return child;
+	}
+
+	/**
+	 * Locate the sibling following the given node.
+	 *
+	 * @param parent The parent of <tt>node</tt>.
+	 * @param node The node whose sibling to locate.
+	 *
+	 * @return The next sibling, or -1 if <tt>node</tt> is the last child of <tt>parent</tt>.
+	 */
+	public int getNextSibling(int parent, int node) {
+		final int next = subtreeEnds[node];
+		return next < subtreeEnds[parent] ? next : -1;
+	}
+
+	/**
+	 * Build a new, mutable tree from this snapshot.  The returned tree is owned by the caller.
+	 *
+	 * @return The mutable tree.
+	 */
+	public Tree thaw() {
+		return thaw( 0 );
+	}
+
+	private HibernateTree thaw(int node) {
+		final HibernateTree tree = types[node] == Token.INVALID_TOKEN_TYPE && texts[node] == null
+				? new HibernateTree()
+				: new HibernateTree( types[node], texts[node] );
+		int child = node + 1;
+		for ( int i = 0; i < childCounts[node]; i++ ) {
+			tree.addChild( thaw( child ) );
+			child = subtreeEnds[child];
+		}
+		return tree;
+	}
+}
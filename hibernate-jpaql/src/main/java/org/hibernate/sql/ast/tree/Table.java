@@ -31,6 +31,9 @@ package org.hibernate.sql.ast.tree;
 import java.util.ArrayList;
 import java.util.HashMap;
 
+import org.antlr.runtime.tree.Tree;
+
+import org.hibernate.persister.MappedTableMetadata;
 import org.hibernate.type.Type;
 import org.hibernate.sql.ast.alias.TableAliasGenerator;
 import org.hibernate.sql.ast.common.HibernateTree;
@@ -38,11 +41,10 @@ import org.hibernate.sql.ast.common.HibernateToken;
 import org.hibernate.sql.ast.util.DisplayableNode;
 import org.hibernate.sql.ast.origin.hql.resolve.PersisterSpace;
 import org.hibernate.sql.ast.origin.hql.resolve.PersisterTableExpressionGenerator;
+import org.hibernate.sql.ast.origin.hql.resolve.ResolutionMetadata;
 import org.hibernate.sql.ast.origin.hql.parse.HQLLexer;
 import org.hibernate.persister.entity.Queryable;
 import org.hibernate.persister.collection.QueryableCollection;
-import org.hibernate.util.StringHelper;
-import org.hibernate.QueryException;
 
 /**
  * todo : javadocs
@@ -51,6 +53,7 @@ import org.hibernate.QueryException;
  */
 public class Table extends HibernateTree implements DisplayableNode {
 	private final TableSpace tableSpace;
+	private boolean referenced;
 
 	public Table(String tableName, String tableAlias, TableSpace tableSpace) {
 		super( new HibernateToken( HQLLexer.TABLE ) );
@@ -84,6 +87,17 @@ public class Table extends HibernateTree implements DisplayableNode {
 		return getTableNameText() + " (" + getAliasText() + ")";
 	}
 
+	/**
+	 * Mark this table as being referenced by the query (its columns are used, or it is joined to).
+	 */
+	public void markReferenced() {
+		referenced = true;
+	}
+
+	public boolean isReferenced() {
+		return referenced;
+	}
+
 	public String getDisplayText() {
 		return "[source-alias=" + tableSpace.getSourceAlias() + "]";
 	}
@@ -138,6 +152,20 @@ public class Table extends HibernateTree implements DisplayableNode {
 		public HibernateTree buildIdentifierSelectExpressionList();
 
 		public HibernateTree buildCompleteSelectExpressionList();
+
+		/**
+		 * Mark every table of this table space as referenced.  Needed whenever the persister is referenced as a
+		 * whole rather than through one of its properties; telling the subclasses of a joined-subclass hierarchy
+		 * apart takes all of its tables.
+		 */
+		public void markAllTablesReferenced();
+
+		/**
+		 * Called once resolution of the query is complete to finalize the joins making up this table space; joins
+		 * to tables which were never {@link Table#isReferenced() referenced} and are not needed to retain the
+		 * semantics of the query are dropped.
+		 */
+		public void finalizeJoins();
 	}
 
 	public static abstract class AbstractTableSpace implements Table.TableSpace {
@@ -171,29 +199,21 @@ public class Table extends HibernateTree implements DisplayableNode {
 		public void registerReusablePropertyJoinedTable(String propertyName, Table table) {
 			propertyToJoinedTableMap.put( propertyName, table );
 		}
-
-		public boolean containsProperty(String propertyName) {
-			try {
-				return getPropertyType( propertyName ) != null;
-			}
-			catch ( QueryException qe ) {
-				return false;
-			}
-		}
 	}
 
 	public static class EntityTableSpace extends AbstractTableSpace {
 		private final EntityPersisterSpace persisterSpace;
+		private boolean allTablesReferenced;
 
-		public EntityTableSpace(Queryable entityPersister, TableAliasGenerator.TableAliasRoot aliasRoot) {
+		public EntityTableSpace(ResolutionMetadata.EntityMetadata metadata, TableAliasGenerator.TableAliasRoot aliasRoot) {
 			super( aliasRoot );
-			this.persisterSpace = new EntityPersisterSpace( this, entityPersister );
-//			int numberOfTables = entityPersister.getMappedTableMetadata().getJoinedTables().length + 1;
+			this.persisterSpace = new EntityPersisterSpace( this, metadata );
+//			int numberOfTables = metadata.getTableCount();
 //			int listSize = numberOfTables + (int) ( numberOfTables * .75 ) + 1;
 //			this.tables = new ArrayList( listSize );
 
 			PersisterTableExpressionGenerator.generateTableExpression(
-					entityPersister,
+					metadata,
 					aliasRoot,
 					this
 			);
@@ -203,8 +223,12 @@ public class Table extends HibernateTree implements DisplayableNode {
 			return persisterSpace;
 		}
 
+		public ResolutionMetadata.EntityMetadata getMetadata() {
+			return persisterSpace.metadata;
+		}
+
 		public Queryable getEntityPersister() {
-			return persisterSpace.getEntityPersister();
+			return getMetadata().getPersister();
 		}
 
 		public Table getDrivingTable() {
@@ -212,29 +236,33 @@ public class Table extends HibernateTree implements DisplayableNode {
 		}
 
 		public Table getJoinIntoTable() {
-			return getDrivingTable();
+			Table drivingTable = getDrivingTable();
+			drivingTable.markReferenced();
+			return drivingTable;
 		}
 
 		public String[] getJoinIntoColumns() {
-			return getEntityPersister().getIdentifierColumnNames();
+			return getMetadata().getIdentifierColumnNames();
 		}
 
 		public Table getContainingTable(String propertyName) {
 			// todo : probably a better solution here is to iterate the internal collection of tables...
-			return tables.get( getEntityPersister().getSubclassPropertyTableNumber( propertyName ) );
+			Table table = tables.get( getMetadata().getPropertyTableNumber( propertyName ) );
+			table.markReferenced();
+			return table;
 		}
 
 		public Type getPropertyType(String propertyName) {
-			return getEntityPersister().getPropertyType( propertyName );
+			return getMetadata().getPropertyType( propertyName );
 		}
 
 		public String[] getPropertyColumnNames(String propertyName) {
-			return getEntityPersister().toColumns( propertyName );
+			return getMetadata().getPropertyColumnNames( propertyName );
 		}
 
 		public HibernateTree buildIdentifierColumnReferences() {
 			HibernateTree columnList = new HibernateTree( HQLLexer.COLUMN_LIST );
-			for ( String columnName : getEntityPersister().getIdentifierColumnNames() ) {
+			for ( String columnName : getMetadata().getIdentifierColumnNames() ) {
 				HibernateTree columnNode = new HibernateTree( HQLLexer.COLUMN );
 				columnNode.addChild( new HibernateTree( HQLLexer.ALIAS_REF, getDrivingTable().getAliasText() ) );
 				columnNode.addChild( new HibernateTree( HQLLexer.IDENTIFIER, columnName ) );
@@ -244,6 +272,8 @@ public class Table extends HibernateTree implements DisplayableNode {
 		}
 
 		public HibernateTree buildCompleteColumnReferences() {
+			// the complete column set (and the subclass discrimination) spans all the tables
+			markAllTablesReferenced();
 			// todo : implement
 			return null;
 		}
@@ -254,24 +284,49 @@ public class Table extends HibernateTree implements DisplayableNode {
 		}
 
 		public HibernateTree buildCompleteSelectExpressionList() {
+			markAllTablesReferenced();
 			// todo : implement
 			return null;
 		}
+
+		public void markAllTablesReferenced() {
+			allTablesReferenced = true;
+		}
+
+		public boolean areAllTablesReferenced() {
+			return allTablesReferenced;
+		}
+
+		public void finalizeJoins() {
+			if ( allTablesReferenced ) {
+				return;
+			}
+			final MappedTableMetadata.JoinedTable[] joinedTables = getMetadata().getJoinedTables();
+			// table 0 is the driving table; the joined tables follow in order.  Work backwards so that the child
+			// indexes of the remaining joins stay valid as we go
+			for ( int i = joinedTables.length; i > 0; i-- ) {
+				final Table table = tables.get( i );
+				if ( table.isReferenced() || joinedTables[i - 1].useInnerJoin() ) {
+					// inner joins restrict the rows to the extent of the entity, so must be kept regardless
+					continue;
+				}
+				final Tree join = table.getParent();
+				join.getParent().deleteChild( join.getChildIndex() );
+			}
+		}
 	}
 
 	private static class EntityPersisterSpace extends AbstractPersisterSpace {
 		private final EntityTableSpace correspondingTableSpace;
-		private final Queryable entityPersister;
-		private final String shortName;
+		private final ResolutionMetadata.EntityMetadata metadata;
 
-		private EntityPersisterSpace(EntityTableSpace correspondingTableSpace, Queryable entityPersister) {
+		private EntityPersisterSpace(EntityTableSpace correspondingTableSpace, ResolutionMetadata.EntityMetadata metadata) {
 			this.correspondingTableSpace = correspondingTableSpace;
-			this.entityPersister = entityPersister;
-			this.shortName = StringHelper.unqualifyEntityName( entityPersister.getEntityName() );
+			this.metadata = metadata;
 		}
 
 		public Queryable getEntityPersister() {
-			return entityPersister;
+			return metadata.getPersister();
 		}
 
 		public String getSourceAlias() {
@@ -279,19 +334,23 @@ public class Table extends HibernateTree implements DisplayableNode {
 		}
 
 		public String getName() {
-			return entityPersister.getName();
+			return metadata.getPersister().getName();
 		}
 
 		public String getShortName() {
-			return shortName;
+			return metadata.getShortName();
 		}
 
 		public TableSpace getTableSpace() {
 			return correspondingTableSpace;
 		}
 
+		public boolean containsProperty(String propertyName) {
+			return metadata.containsProperty( propertyName );
+		}
+
 		public Type getPropertyType(String propertyName) {
-			return entityPersister.getPropertyType( propertyName );
+			return metadata.getPropertyType( propertyName );
 		}
 	}
 
@@ -301,16 +360,20 @@ public class Table extends HibernateTree implements DisplayableNode {
 		private Table collectionTable;
 		private EntityTableSpace entityElementTableSpace;
 
-		public CollectionTableSpace(QueryableCollection persister, TableAliasGenerator.TableAliasRoot aliasRoot) {
+		public CollectionTableSpace(ResolutionMetadata.CollectionMetadata metadata, TableAliasGenerator.TableAliasRoot aliasRoot) {
 			super( aliasRoot );
-			this.persisterSpace = new CollectionPersisterSpace( this, persister );
-			if ( persisterSpace.areElementsEntities ) {
-				entityElementTableSpace = new EntityTableSpace( ( Queryable ) persister.getElementPersister(), aliasRoot );
+			this.persisterSpace = new CollectionPersisterSpace( this, metadata );
+			if ( metadata.areElementsEntities() ) {
+				entityElementTableSpace = new EntityTableSpace( metadata.getElementMetadata(), aliasRoot );
 			}
 		}
 
+		public ResolutionMetadata.CollectionMetadata getMetadata() {
+			return persisterSpace.metadata;
+		}
+
 		public QueryableCollection getCollectionPersister() {
-			return persisterSpace.getCollectionPersister();
+			return getMetadata().getPersister();
 		}
 
 		public PersisterSpace getPersisterSpace() {
@@ -326,11 +389,12 @@ public class Table extends HibernateTree implements DisplayableNode {
 		}
 
 		public Table getJoinIntoTable() {
+			collectionTable.markReferenced();
 			return collectionTable;
 		}
 
 		public String[] getJoinIntoColumns() {
-			return getCollectionPersister().getKeyColumnNames();
+			return getMetadata().getKeyColumnNames();
 		}
 
 		public Table getContainingTable(String propertyName) {
@@ -365,20 +429,30 @@ public class Table extends HibernateTree implements DisplayableNode {
 			// todo : implement
 			return null;
 		}
+
+		public void markAllTablesReferenced() {
+			collectionTable.markReferenced();
+			if ( entityElementTableSpace != null ) {
+				entityElementTableSpace.markAllTablesReferenced();
+			}
+		}
+
+		public void finalizeJoins() {
+			if ( entityElementTableSpace != null ) {
+				entityElementTableSpace.finalizeJoins();
+			}
+		}
 	}
 
 	public static class CollectionPersisterSpace extends AbstractPersisterSpace {
 		private final CollectionTableSpace correspondingTableSpace;
-		private final QueryableCollection collectionPersister;
-
-		private final String shortName;
+		private final ResolutionMetadata.CollectionMetadata metadata;
 		private final boolean areElementsEntities;
 
-		public CollectionPersisterSpace(CollectionTableSpace correspondingTableSpace, QueryableCollection collectionPersister) {
+		public CollectionPersisterSpace(CollectionTableSpace correspondingTableSpace, ResolutionMetadata.CollectionMetadata metadata) {
 			this.correspondingTableSpace = correspondingTableSpace;
-			this.collectionPersister = collectionPersister;
-			this.shortName = StringHelper.unqualify( collectionPersister.getRole() );
-			this.areElementsEntities = collectionPersister.getElementType().isEntityType();
+			this.metadata = metadata;
+			this.areElementsEntities = metadata.areElementsEntities();
 		}
 
 		public String getSourceAlias() {
@@ -386,21 +460,26 @@ public class Table extends HibernateTree implements DisplayableNode {
 		}
 
 		public QueryableCollection getCollectionPersister() {
-			return collectionPersister;
+			return metadata.getPersister();
 		}
 
 		public String getName() {
-			return collectionPersister.getRole();
+			return metadata.getRole();
 		}
 
 		public String getShortName() {
-			return shortName;
+			return metadata.getShortName();
 		}
 
 		public TableSpace getTableSpace() {
 			return correspondingTableSpace;
 		}
 
+		public boolean containsProperty(String propertyName) {
+			return areElementsEntities
+					&& correspondingTableSpace.entityElementTableSpace.getPersisterSpace().containsProperty( propertyName );
+		}
+
 		public Type getPropertyType(String propertyName) {
 			return areElementsEntities
 					? correspondingTableSpace.entityElementTableSpace.getPersisterSpace().getPropertyType( propertyName )
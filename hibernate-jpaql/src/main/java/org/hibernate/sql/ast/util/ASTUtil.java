@@ -393,8 +393,8 @@ public final class ASTUtil {
 	/**
 	 * Intended to retrieve the name of an AST token type based on the token type interface.  However, this
 	 * method can be used to look up the name of any constant defined on a class/interface based on the constant value.
-	 * Note that if multiple constants have this value, the first will be returned which is known to be different
-	 * on different JVM implementations.
+	 * Note that if multiple constants have this value, those declared by the class itself take precedence; see
+	 * {@link TokenNames}.
 	 *
 	 * @param tokenTypeInterface The *TokenTypes interface (or one of its implementors).
 	 * @param tokenType The token type value.
@@ -402,38 +402,9 @@ public final class ASTUtil {
 	 * @return The corresponding name.
 	 */
 	public static String getTokenTypeName(Class tokenTypeInterface, int tokenType) {
-		String tokenTypeName = Integer.toString( tokenType );
-		if ( tokenTypeInterface != null ) {
-			Field[] fields = tokenTypeInterface.getFields();
-			for ( int i = 0; i < fields.length; i++ ) {
-				final Integer fieldValue = extractIntegerValue( fields[i] );
-				if ( fieldValue != null && fieldValue.intValue() == tokenType ) {
-					tokenTypeName = fields[i].getName();
-					break;
-				}
-			}
-		}
-		return tokenTypeName;
-	}
-
-	private static Integer extractIntegerValue(Field field) {
-		Integer rtn = null;
-		try {
-			Object value = field.get( null );
-			if ( value instanceof Integer ) {
-				rtn = ( Integer ) value;
-			}
-			else if ( value instanceof Short ) {
-				rtn = new Integer( ( ( Short ) value ).intValue() );
-			}
-			else if ( value instanceof Long ) {
-				if ( ( ( Long ) value ).longValue() <= Integer.MAX_VALUE ) {
-					rtn = new Integer( ( ( Long ) value ).intValue() );
-				}
-			}
-		}
-		catch ( IllegalAccessException ignore ) {
+		if ( tokenTypeInterface == null ) {
+			return Integer.toString( tokenType );
 		}
-		return rtn;
+		return TokenNames.forVocabulary( tokenTypeInterface ).getName( tokenType );
 	}
 }
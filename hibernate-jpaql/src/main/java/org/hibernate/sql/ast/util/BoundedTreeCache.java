@@ -0,0 +1,170 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2008, Red Hat Middleware LLC or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Middleware LLC.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ *
+ */
+package org.hibernate.sql.ast.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A thread-safe, least-recently-used cache of tree structures keyed by query text, bounded both by the number
+ * of entries and by the total number of tree nodes held across all entries.
+ * <p/>
+ * The cache itself does no copying; callers are expected to store values which are either immutable or never
+ * handed out directly.
+ */
+public class BoundedTreeCache<T> {
+	private final int maxEntries;
+	private final int maxTotalNodes;
+
+	private final LinkedHashMap<String,Entry<T>> entries = new LinkedHashMap<String,Entry<T>>( 16, .75f, true );
+	private int totalNodes = 0;
+
+	private final AtomicLong hitCount = new AtomicLong();
+	private final AtomicLong missCount = new AtomicLong();
+	private final AtomicLong evictionCount = new AtomicLong();
+
+	/**
+	 * Constructs a cache.
+	 *
+	 * @param maxEntries The maximum number of entries to keep.
+	 * @param maxTotalNodes The maximum number of tree nodes to keep, summed across all entries.
+	 */
+	public BoundedTreeCache(int maxEntries, int maxTotalNodes) {
+		if ( maxEntries <= 0 ) {
+			throw new IllegalArgumentException( "maxEntries must be positive" );
+		}
+		if ( maxTotalNodes <= 0 ) {
+			throw new IllegalArgumentException( "maxTotalNodes must be positive" );
+		}
+		this.maxEntries = maxEntries;
+		this.maxTotalNodes = maxTotalNodes;
+	}
+
+	/**
+	 * Look up the value cached under the given key, recording a hit or a miss.
+	 *
+	 * @param key The cache key.
+	 *
+	 * @return The cached value, or null.
+	 */
+	public T get(String key) {
+		Entry<T> entry;
+		synchronized ( entries ) {
+			entry = entries.get( key );
+		}
+		if ( entry == null ) {
+			missCount.incrementAndGet();
+			return null;
+		}
+		hitCount.incrementAndGet();
+		return entry.value;
+	}
+
+	/**
+	 * Cache a value, evicting the least recently used entries as needed to stay within bounds.  A value which
+	 * on its own exceeds {@link #getMaxTotalNodes()} is not cached.
+	 *
+	 * @param key The cache key.
+	 * @param value The value to cache.
+	 * @param nodeCount The number of tree nodes making up the value.
+	 *
+	 * @return Whether the value was cached.
+	 */
+	public boolean put(String key, T value, int nodeCount) {
+		if ( nodeCount > maxTotalNodes ) {
+			return false;
+		}
+		synchronized ( entries ) {
+			Entry<T> previous = entries.put( key, new Entry<T>( value, nodeCount ) );
+			if ( previous != null ) {
+				// another thread built the same entry concurrently
+				totalNodes -= previous.nodeCount;
+			}
+			totalNodes += nodeCount;
+
+			Iterator<Map.Entry<String,Entry<T>>> eldest = entries.entrySet().iterator();
+			while ( entries.size() > maxEntries || totalNodes > maxTotalNodes ) {
+				totalNodes -= eldest.next().getValue().nodeCount;
+				eldest.remove();
+				evictionCount.incrementAndGet();
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Remove all entries.  The statistics counters are left untouched.
+	 */
+	public void clear() {
+		synchronized ( entries ) {
+			entries.clear();
+			totalNodes = 0;
+		}
+	}
+
+	public int getMaxEntries() {
+		return maxEntries;
+	}
+
+	public int getMaxTotalNodes() {
+		return maxTotalNodes;
+	}
+
+	public int getEntryCount() {
+		synchronized ( entries ) {
+			return entries.size();
+		}
+	}
+
+	public int getTotalNodeCount() {
+		synchronized ( entries ) {
+			return totalNodes;
+		}
+	}
+
+	public long getHitCount() {
+		return hitCount.get();
+	}
+
+	public long getMissCount() {
+		return missCount.get();
+	}
+
+	public long getEvictionCount() {
+		return evictionCount.get();
+	}
+
+	private static class Entry<T> {
+		private final T value;
+		private final int nodeCount;
+
+		private Entry(T value, int nodeCount) {
+			this.value = value;
+			this.nodeCount = nodeCount;
+		}
+	}
+}
@@ -0,0 +1,163 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2008, Red Hat Middleware LLC or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Middleware LLC.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ *
+ */
+package org.hibernate.sql.ast.util;
+
+import java.util.Map;
+
+/**
+ * An immutable table of words, each with an int value, looked up directly against a range of characters (no
+ * <tt>String</tt> is built for the candidate word).  Matching is case-insensitive exactly as
+ * {@link String#equalsIgnoreCase} compares, and does not depend on the default locale.
+ * <p/>
+ * Words are held as an open-addressing hash table of their {@link #fold folded} characters, so a lookup is a single
+ * probe in the common case.
+ */
+public final class CaseInsensitiveWords {
+	/**
+	 * The value returned for words which are not in the table.
+	 */
+	public static final int NOT_FOUND = 0;
+
+	private final char[][] words;
+	private final int[] values;
+	private final int mask;
+
+	/**
+	 * Builds the table.
+	 *
+	 * @param valuesByWord The words, which must be {@link #isFolded folded}, and their (non zero) values.
+	 */
+	public CaseInsensitiveWords(Map<String,Integer> valuesByWord) {
+		int size = 16;
+		while ( size < valuesByWord.size() * 3 ) {
+			size <<= 1;
+		}
+		words = new char[size][];
+		values = new int[size];
+		mask = size - 1;
+		for ( Map.Entry<String,Integer> entry : valuesByWord.entrySet() ) {
+			final char[] word = entry.getKey().toCharArray();
+			int slot = hash( word, 0, word.length ) & mask;
+			while ( words[slot] != null ) {
+				slot = ( slot + 1 ) & mask;
+			}
+			words[slot] = word;
+			values[slot] = entry.getValue();
+		}
+	}
+
+	/**
+	 * Look up the word in the given character range.
+	 *
+	 * @param chars The characters.
+	 * @param start The start of the word.
+	 * @param length The length of the word.
+	 *
+	 * @return The word's value, or {@link #NOT_FOUND}.
+	 */
+	public int lookup(char[] chars, int start, int length) {
+		int slot = hash( chars, start, length ) & mask;
+		char[] word;
+		while ( ( word = words[slot] ) != null ) {
+			if ( matches( word, chars, start, length ) ) {
+				return values[slot];
+			}
+			slot = ( slot + 1 ) & mask;
+		}
+		return NOT_FOUND;
+	}
+
+	/**
+	 * The case folding applied by {@link String#equalsIgnoreCase}.
+	 *
+	 * @param c The character.
+	 *
+	 * @return The folded (lower case) character.
+	 */
+	public static char fold(char c) {
+		if ( c < 128 ) {
+			return c >= 'A' && c <= 'Z' ? ( char ) ( c + ( 'a' - 'A' ) ) : c;
+		}
+		return Character.toLowerCase( Character.toUpperCase( c ) );
+	}
+
+	/**
+	 * Is the given word its own {@link #fold folded} form, and so able to be held in a table?
+	 *
+	 * @param word The word.
+	 *
+	 * @return True if the word is not empty and folding leaves each character unchanged.
+	 */
+	public static boolean isFolded(String word) {
+		if ( word.length() == 0 ) {
+			return false;
+		}
+		for ( int i = 0; i < word.length(); i++ ) {
+			if ( fold( word.charAt( i ) ) != word.charAt( i ) ) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * A hash of the folded characters of the given range; equal for ranges which match each other.
+	 *
+	 * @param chars The characters.
+	 * @param start The start of the word.
+	 * @param length The length of the word.
+	 *
+	 * @return The hash.
+	 */
+	public static int hash(char[] chars, int start, int length) {
+		int hash = 0;
+		for ( int i = start; i < start + length; i++ ) {
+			hash = 31 * hash + fold( chars[i] );
+		}
+		return hash ^ ( hash >>> 16 );
+	}
+
+	/**
+	 * Does the given folded word match the given character range?
+	 *
+	 * @param word The folded word.
+	 * @param chars The characters.
+	 * @param start The start of the range.
+	 * @param length The length of the range.
+	 *
+	 * @return True if the range folds to the word.
+	 */
+	public static boolean matches(char[] word, char[] chars, int start, int length) {
+		if ( word.length != length ) {
+			return false;
+		}
+		for ( int i = 0; i < length; i++ ) {
+			if ( word[i] != fold( chars[start + i] ) ) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
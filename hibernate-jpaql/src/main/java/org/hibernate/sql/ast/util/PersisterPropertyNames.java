@@ -0,0 +1,236 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2008, Red Hat Middleware LLC or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Middleware LLC.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ *
+ */
+package org.hibernate.sql.ast.util;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.hibernate.MappingException;
+import org.hibernate.QueryException;
+import org.hibernate.engine.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.persister.entity.OuterJoinLoadable;
+import org.hibernate.persister.entity.Queryable;
+import org.hibernate.type.CompositeType;
+import org.hibernate.type.EntityType;
+import org.hibernate.type.Type;
+
+/**
+ * The property names (and component property paths) exposed by each entity persister of a session factory, built
+ * once per session factory so that "is this a property?" questions can be answered without provoking (and
+ * catching) a {@link QueryException} from the persister.
+ * <p/>
+ * The set of unqualified names (<tt>name</tt>, <tt>id</tt>, <tt>class</tt>, ...) is complete, so a miss on such a
+ * name is authoritative.  Dotted paths are only recorded where they are certain to be valid (component paths,
+ * association identifier paths); any other dotted path is still checked against the persister itself.
+ */
+public final class PersisterPropertyNames {
+	private static final Logger log = LoggerFactory.getLogger( PersisterPropertyNames.class );
+
+	/**
+	 * The names are plain strings, not referencing the session factory, so its entry goes once it is collected.
+	 */
+	private static final WeakIdentityMap<SessionFactoryImplementor,PersisterPropertyNames> BY_FACTORY
+			= new WeakIdentityMap<SessionFactoryImplementor,PersisterPropertyNames>();
+
+	private final Map<String,Set<String>> propertyNamesByEntityName;
+
+	private PersisterPropertyNames(Map<String,Set<String>> propertyNamesByEntityName) {
+		this.propertyNamesByEntityName = propertyNamesByEntityName;
+	}
+
+	/**
+	 * Retrieve the property names for the given session factory, building them for all its entity persisters on
+	 * first access.  That first access is normally made while the session factory builds its collection persisters
+	 * (see {@link org.hibernate.sql.ast.origin.ordering.EntityPersisterColumnMapper}); later lookups do not lock.
+	 *
+	 * @param sessionFactory The session factory.
+	 *
+	 * @return The property names.
+	 */
+	public static PersisterPropertyNames forSessionFactory(SessionFactoryImplementor sessionFactory) {
+		PersisterPropertyNames propertyNames = BY_FACTORY.get( sessionFactory );
+		if ( propertyNames == null ) {
+			propertyNames = BY_FACTORY.putIfAbsent( sessionFactory, build( sessionFactory ) );
+		}
+		return propertyNames;
+	}
+
+	/**
+	 * Does the given persister expose the named property (or property path)?
+	 *
+	 * @param persister The entity persister.
+	 * @param propertyName The property name or path.
+	 *
+	 * @return True if the persister knows such a property; false otherwise.
+	 */
+	public static boolean containsProperty(Queryable persister, String propertyName) {
+		return forSessionFactory( persister.getFactory() ).isPropertyName( persister, propertyName );
+	}
+
+	/**
+	 * Retrieve the names known for the given entity.
+	 *
+	 * @param entityName The entity name.
+	 *
+	 * @return The (unmodifiable) names, or null if the entity is not known.
+	 */
+	public Set<String> getPropertyNames(String entityName) {
+		return propertyNamesByEntityName.get( entityName );
+	}
+
+	/**
+	 * Does the given persister expose the named property (or property path)?
+	 *
+	 * @param persister The entity persister.
+	 * @param propertyName The property name or path.
+	 *
+	 * @return True if the persister knows such a property; false otherwise.
+	 */
+	public boolean isPropertyName(Queryable persister, String propertyName) {
+		final Set<String> names = propertyNamesByEntityName.get( persister.getEntityName() );
+		if ( names != null ) {
+			if ( names.contains( propertyName ) ) {
+				return true;
+			}
+			if ( propertyName.indexOf( '.' ) < 0 ) {
+				return false;
+			}
+		}
+		try {
+			return persister.getPropertyType( propertyName ) != null;
+		}
+		catch ( QueryException e ) {
+			return false;
+		}
+	}
+
+	private static PersisterPropertyNames build(SessionFactoryImplementor sessionFactory) {
+		final Map<String,Set<String>> propertyNamesByEntityName = new HashMap<String,Set<String>>();
+		final Iterator entityNames = sessionFactory.getAllClassMetadata().keySet().iterator();
+		while ( entityNames.hasNext() ) {
+			final String entityName = ( String ) entityNames.next();
+			final EntityPersister persister = sessionFactory.getEntityPersister( entityName );
+			propertyNamesByEntityName.put(
+					entityName,
+					Collections.unmodifiableSet( collectPropertyNames( persister, sessionFactory ) )
+			);
+		}
+		log.debug( "collected property names of {} entity persisters", propertyNamesByEntityName.size() );
+		return new PersisterPropertyNames( propertyNamesByEntityName );
+	}
+
+	private static Set<String> collectPropertyNames(EntityPersister persister, SessionFactoryImplementor sessionFactory) {
+		final Set<String> names = new HashSet<String>();
+
+		final Type identifierType = persister.getIdentifierType();
+		addPropertyPaths( names, EntityPersister.ENTITY_ID, identifierType, sessionFactory );
+		if ( persister.getIdentifierPropertyName() != null ) {
+			addPropertyPaths( names, persister.getIdentifierPropertyName(), identifierType, sessionFactory );
+		}
+		if ( persister.getEntityMetamodel().getIdentifierProperty().isEmbedded() ) {
+			addComponentPropertyPaths( names, null, ( CompositeType ) identifierType, sessionFactory );
+		}
+		if ( persister.getEntityMetamodel().isPolymorphic() ) {
+			names.add( AbstractEntityPersister.ENTITY_CLASS );
+		}
+
+		if ( persister instanceof OuterJoinLoadable ) {
+			// includes the properties of subclasses
+			final OuterJoinLoadable loadable = ( OuterJoinLoadable ) persister;
+			for ( int i = 0; i < loadable.countSubclassProperties(); i++ ) {
+				addPropertyPaths( names, loadable.getSubclassPropertyName( i ), loadable.getSubclassPropertyType( i ), sessionFactory );
+			}
+		}
+		else {
+			final String[] propertyNames = persister.getPropertyNames();
+			final Type[] propertyTypes = persister.getPropertyTypes();
+			for ( int i = 0; i < propertyNames.length; i++ ) {
+				addPropertyPaths( names, propertyNames[i], propertyTypes[i], sessionFactory );
+			}
+		}
+		return names;
+	}
+
+	private static void addPropertyPaths(Set<String> names, String path, Type type, SessionFactoryImplementor sessionFactory) {
+		if ( !names.add( path ) ) {
+			// already seen (a property redefined by several subclasses e.g.)
+			return;
+		}
+		if ( type.isComponentType() ) {
+			addComponentPropertyPaths( names, path, ( CompositeType ) type, sessionFactory );
+		}
+		else if ( type.isEntityType() ) {
+			addIdentifierPropertyPaths( names, path, ( EntityType ) type, sessionFactory );
+		}
+	}
+
+	private static void addComponentPropertyPaths(
+			Set<String> names,
+			String path,
+			CompositeType type,
+			SessionFactoryImplementor sessionFactory) {
+		final String[] propertyNames = type.getPropertyNames();
+		final Type[] propertyTypes = type.getSubtypes();
+		for ( int i = 0; i < propertyNames.length; i++ ) {
+			addPropertyPaths(
+					names,
+					path == null ? propertyNames[i] : path + '.' + propertyNames[i],
+					propertyTypes[i],
+					sessionFactory
+			);
+		}
+	}
+
+	private static void addIdentifierPropertyPaths(
+			Set<String> names,
+			String path,
+			EntityType type,
+			SessionFactoryImplementor sessionFactory) {
+		// only the named identifier (or unique key) property is recorded; whether "path.id" is valid depends on the
+		// associated entity mapping a regular property named "id", so it is left to the persister to decide
+		final String identifierPropertyName;
+		final Type identifierType;
+		try {
+			identifierPropertyName = type.getIdentifierOrUniqueKeyPropertyName( sessionFactory );
+			identifierType = type.getIdentifierOrUniqueKeyType( sessionFactory );
+		}
+		catch ( MappingException e ) {
+			log.trace( "could not determine identifier of association [{}] : {}", path, e.getMessage() );
+			return;
+		}
+		if ( identifierPropertyName != null ) {
+			addPropertyPaths( names, path + '.' + identifierPropertyName, identifierType, sessionFactory );
+		}
+	}
+}
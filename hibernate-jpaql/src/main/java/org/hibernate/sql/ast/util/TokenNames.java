@@ -0,0 +1,158 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2008, Red Hat Middleware LLC or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Middleware LLC.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ *
+ */
+package org.hibernate.sql.ast.util;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The names of the token types of a token vocabulary (typically a generated lexer or parser), in an array indexed by
+ * token type.
+ * <p/>
+ * Built once per vocabulary class, on first request, by reflecting over the static integer constants of the class,
+ * and shared from then on.  Where several constants share a value, those declared by the vocabulary class itself
+ * win over inherited ones (the recognizer base classes define a few unrelated constants).
+ */
+public final class TokenNames {
+	/**
+	 * Constants further from zero than this cannot be token types, and are ignored.
+	 */
+	private static final int MAX_TOKEN_TYPE = Character.MAX_VALUE;
+
+	private static final ConcurrentMap<Class,TokenNames> vocabularies = new ConcurrentHashMap<Class,TokenNames>();
+
+	private final int minimumType;
+	private final String[] names;
+
+	private TokenNames(int minimumType, String[] names) {
+		this.minimumType = minimumType;
+		this.names = names;
+	}
+
+	/**
+	 * Get the token names of the given vocabulary.
+	 *
+	 * @param tokenTypeConstants The class defining the token type constants.
+	 *
+	 * @return The token names.
+	 */
+	public static TokenNames forVocabulary(Class tokenTypeConstants) {
+		TokenNames tokenNames = vocabularies.get( tokenTypeConstants );
+		if ( tokenNames == null ) {
+			tokenNames = build( tokenTypeConstants );
+			TokenNames existing = vocabularies.putIfAbsent( tokenTypeConstants, tokenNames );
+			if ( existing != null ) {
+				tokenNames = existing;
+			}
+		}
+		return tokenNames;
+	}
+
+	private static TokenNames build(Class tokenTypeConstants) {
+		final Field[] fields = tokenTypeConstants.getFields();
+		final Integer[] values = new Integer[fields.length];
+		int min = Integer.MAX_VALUE;
+		int max = Integer.MIN_VALUE;
+		for ( int i = 0; i < fields.length; i++ ) {
+			values[i] = extractIntegerValue( fields[i] );
+			if ( values[i] != null && Math.abs( values[i] ) > MAX_TOKEN_TYPE ) {
+				values[i] = null;
+			}
+			if ( values[i] != null ) {
+				min = Math.min( min, values[i] );
+				max = Math.max( max, values[i] );
+			}
+		}
+		if ( min > max ) {
+			return new TokenNames( 0, new String[0] );
+		}
+
+		final String[] names = new String[max - min + 1];
+		// first the constants declared by the vocabulary itself, then the inherited ones
+		for ( int pass = 0; pass < 2; pass++ ) {
+			for ( int i = 0; i < fields.length; i++ ) {
+				final boolean declared = fields[i].getDeclaringClass() == tokenTypeConstants;
+				if ( values[i] == null || declared != ( pass == 0 ) ) {
+					continue;
+				}
+				final int index = values[i] - min;
+				if ( names[index] == null ) {
+					names[index] = fields[i].getName();
+				}
+			}
+		}
+		return new TokenNames( min, names );
+	}
+
+	private static Integer extractIntegerValue(Field field) {
+		if ( !Modifier.isStatic( field.getModifiers() ) ) {
+			return null;
+		}
+		try {
+			Object value = field.get( null );
+			if ( value instanceof Integer ) {
+				return ( Integer ) value;
+			}
+			else if ( value instanceof Short ) {
+				return ( ( Short ) value ).intValue();
+			}
+			else if ( value instanceof Long ) {
+				final long longValue = ( ( Long ) value ).longValue();
+				if ( longValue <= Integer.MAX_VALUE && longValue >= Integer.MIN_VALUE ) {
+					return ( int ) longValue;
+				}
+			}
+		}
+		catch ( IllegalAccessException ignore ) {
+		}
+		return null;
+	}
+
+	/**
+	 * Get the name of the given token type.
+	 *
+	 * @param tokenType The token type.
+	 *
+	 * @return The name of the token type constant, or the integer value (as a string) if there is none.
+	 */
+	public String getName(int tokenType) {
+		final String name = findName( tokenType );
+		return name == null ? Integer.toString( tokenType ) : name;
+	}
+
+	/**
+	 * Find the name of the given token type.
+	 *
+	 * @param tokenType The token type.
+	 *
+	 * @return The name of the token type constant, or null if there is none.
+	 */
+	public String findName(int tokenType) {
+		final int index = tokenType - minimumType;
+		return index >= 0 && index < names.length ? names[index] : null;
+	}
+}
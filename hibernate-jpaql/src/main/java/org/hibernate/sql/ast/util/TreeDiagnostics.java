@@ -0,0 +1,126 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2008, Red Hat Middleware LLC or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Middleware LLC.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ *
+ */
+package org.hibernate.sql.ast.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.antlr.runtime.tree.Tree;
+import org.slf4j.Logger;
+
+/**
+ * Central switch for the diagnostic rendering of trees.
+ * <p/>
+ * Rendering a tree is expensive, so besides the log level it is gated by the <tt>hibernate.sql.ast.tree_diagnostics</tt>
+ * system property, read once when this class is initialized.  {@link #ENABLED} being a constant, call sites of the
+ * form <tt>if ( TreeDiagnostics.ENABLED ) { ... }</tt> cost nothing when diagnostics are off.
+ * <p/>
+ * Printers are cached per token vocabulary.
+ */
+public final class TreeDiagnostics {
+	/**
+	 * The name of the system property enabling tree diagnostics.
+	 */
+	public static final String ENABLED_PROPERTY = "hibernate.sql.ast.tree_diagnostics";
+
+	/**
+	 * Are tree diagnostics enabled?
+	 */
+	public static final boolean ENABLED = Boolean.getBoolean( ENABLED_PROPERTY );
+
+	private static final ConcurrentMap<Class,TreePrinter> printers = new ConcurrentHashMap<Class,TreePrinter>();
+
+	private TreeDiagnostics() {
+	}
+
+	/**
+	 * Get the (shared) printer for the given token vocabulary.
+	 *
+	 * @param tokenTypeConstants The token types to use during printing.
+	 *
+	 * @return The printer.
+	 */
+	public static TreePrinter getPrinter(Class tokenTypeConstants) {
+		TreePrinter printer = printers.get( tokenTypeConstants );
+		if ( printer == null ) {
+			printer = new TreePrinter( tokenTypeConstants );
+			TreePrinter existing = printers.putIfAbsent( tokenTypeConstants, printer );
+			if ( existing != null ) {
+				printer = existing;
+			}
+		}
+		return printer;
+	}
+
+	/**
+	 * Should trees be rendered to the given logger at <tt>DEBUG</tt> level?
+	 *
+	 * @param log The logger.
+	 *
+	 * @return True if diagnostics are enabled and the logger is enabled for <tt>DEBUG</tt>.
+	 */
+	public static boolean isDebugEnabled(Logger log) {
+		return ENABLED && log.isDebugEnabled();
+	}
+
+	/**
+	 * Should trees be rendered to the given logger at <tt>TRACE</tt> level?
+	 *
+	 * @param log The logger.
+	 *
+	 * @return True if diagnostics are enabled and the logger is enabled for <tt>TRACE</tt>.
+	 */
+	public static boolean isTraceEnabled(Logger log) {
+		return ENABLED && log.isTraceEnabled();
+	}
+
+	/**
+	 * Render the tree to the given logger at <tt>DEBUG</tt> level, if {@link #isDebugEnabled enabled}.
+	 *
+	 * @param log The logger.
+	 * @param tokenTypeConstants The token types to use during printing.
+	 * @param tree The tree to render.
+	 * @param header The header for the display.
+	 */
+	public static void debug(Logger log, Class tokenTypeConstants, Tree tree, String header) {
+		if ( isDebugEnabled( log ) ) {
+			log.debug( getPrinter( tokenTypeConstants ).renderAsString( tree, header ) );
+		}
+	}
+
+	/**
+	 * Render the tree to the given logger at <tt>TRACE</tt> level, if {@link #isTraceEnabled enabled}.
+	 *
+	 * @param log The logger.
+	 * @param tokenTypeConstants The token types to use during printing.
+	 * @param tree The tree to render.
+	 * @param header The header for the display.
+	 */
+	public static void trace(Logger log, Class tokenTypeConstants, Tree tree, String header) {
+		if ( isTraceEnabled( log ) ) {
+			log.trace( getPrinter( tokenTypeConstants ).renderAsString( tree, header ) );
+		}
+	}
+}
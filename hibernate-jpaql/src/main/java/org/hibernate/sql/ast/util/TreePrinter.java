@@ -23,11 +23,9 @@
  */
 package org.hibernate.sql.ast.util;
 
-import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
 import java.io.PrintWriter;
 import java.util.ArrayList;
-import java.util.Map;
 
 import org.hibernate.util.StringHelper;
 import org.antlr.runtime.tree.Tree;
@@ -39,7 +37,20 @@ import org.antlr.runtime.tree.Tree;
  * @author Steve Ebersole
  */
 public class TreePrinter {
-	private final Map tokenTypeNameCache;
+	private static final String LINE_SEPARATOR = System.getProperty( "line.separator" );
+
+	/**
+	 * Buffers larger than this are not kept around for reuse.
+	 */
+	private static final int MAX_RETAINED_BUFFER_SIZE = 64 * 1024;
+
+	private static final ThreadLocal<StringBuilder> buffers = new ThreadLocal<StringBuilder>() {
+		protected StringBuilder initialValue() {
+			return new StringBuilder( 1024 );
+		}
+	};
+
+	private final TokenNames tokenNames;
 	private final boolean showClassNames;
 
 	/**
@@ -51,11 +62,11 @@ public class TreePrinter {
 	 * interface generated by ANTLR.
 	 */
 	public TreePrinter(Class tokenTypeConstants) {
-		this( ASTUtil.generateTokenNameCache( tokenTypeConstants ), false );
+		this( TokenNames.forVocabulary( tokenTypeConstants ), false );
 	}
 
 	public TreePrinter(boolean showClassNames) {
-		this( ( Map ) null, showClassNames );
+		this( ( TokenNames ) null, showClassNames );
 	}
 
 	/**
@@ -66,11 +77,11 @@ public class TreePrinter {
 	 * @param showClassNames Should the class names of the tree nodes impls be displayed.
 	 */
 	public TreePrinter(Class tokenTypeConstants, boolean showClassNames) {
-		this( ASTUtil.generateTokenNameCache( tokenTypeConstants ), showClassNames );
+		this( TokenNames.forVocabulary( tokenTypeConstants ), showClassNames );
 	}
 
-	private TreePrinter(Map tokenTypeNameCache, boolean showClassNames) {
-		this.tokenTypeNameCache = tokenTypeNameCache;
+	private TreePrinter(TokenNames tokenNames, boolean showClassNames) {
+		this.tokenNames = tokenNames;
 		this.showClassNames = showClassNames;
 	}
 
@@ -92,12 +103,33 @@ public class TreePrinter {
 	 * @return The'ASCII art' form, as a string.
 	 */
 	public String renderAsString(Tree tree, String header) {
-		ByteArrayOutputStream baos = new ByteArrayOutputStream();
-		PrintStream ps = new PrintStream( baos );
-		ps.println( header );
-		render( tree, ps );
-		ps.flush();
-		return new String( baos.toByteArray() );
+		final StringBuilder buffer = acquireBuffer();
+		try {
+			buffer.append( header ).append( LINE_SEPARATOR );
+			render( tree, buffer );
+			return buffer.toString();
+		}
+		finally {
+			releaseBuffer( buffer );
+		}
+	}
+
+	private static StringBuilder acquireBuffer() {
+		final StringBuilder buffer = buffers.get();
+		// a non-empty buffer means a rendering is already under way on this thread (a node's display text, e.g.)
+		return buffer.length() == 0 ? buffer : new StringBuilder();
+	}
+
+	private static void releaseBuffer(StringBuilder buffer) {
+		if ( buffer != buffers.get() ) {
+			return;
+		}
+		if ( buffer.capacity() > MAX_RETAINED_BUFFER_SIZE ) {
+			buffers.remove();
+		}
+		else {
+			buffer.setLength( 0 );
+		}
 	}
 
 	/**
@@ -117,11 +149,27 @@ public class TreePrinter {
 	 * @param pw The print writer to which the tree should be written.
 	 */
 	public void render(Tree tree, PrintWriter pw) {
-		ArrayList parents = new ArrayList();
-		render( parents, pw, tree );
+		final StringBuilder buffer = acquireBuffer();
+		try {
+			render( tree, buffer );
+			pw.print( buffer );
+		}
+		finally {
+			releaseBuffer( buffer );
+		}
 		pw.flush();
 	}
 
+	/**
+	 * Appends the tree in 'ASCII art' tree form to the specified buffer.
+	 *
+	 * @param tree The tree to print.
+	 * @param buffer The buffer to which the tree should be appended.
+	 */
+	public void render(Tree tree, StringBuilder buffer) {
+		render( new ArrayList<Tree>(), buffer, tree );
+	}
+
 	/**
 	 * Returns the token type name for the given token type.
 	 *
@@ -130,50 +178,42 @@ public class TreePrinter {
 	 *         or just the integer as a string if none exists.
 	 */
 	public String getTokenTypeName(int type) {
-		final Integer typeInteger = new Integer( type );
-		String value = null;
-		if ( tokenTypeNameCache != null ) {
-			value = ( String ) tokenTypeNameCache.get( typeInteger );
-		}
-		if ( value == null ) {
-			value = typeInteger.toString();
-		}
-		return value;
+		return tokenNames == null ? Integer.toString( type ) : tokenNames.getName( type );
 	}
 
-	private void render(ArrayList parents, PrintWriter pw, Tree tree) {
+	private void render(ArrayList<Tree> parents, StringBuilder buffer, Tree tree) {
 		if ( tree == null ) {
-			pw.println( "tree is null!" );
+			buffer.append( "tree is null!" ).append( LINE_SEPARATOR );
 			return;
 		}
 
         // Tree.getChildIndex() -> the tree's position within its parent's children...
 
 		for ( int i = 0; i < parents.size(); i++ ) {
-			final Tree parent = ( Tree ) parents.get( i );
+			final Tree parent = parents.get( i );
             if ( hasNextSibling( parent ) ) {
-				pw.print( "   " );
+				buffer.append( "   " );
 			}
 			else {
-				pw.print( " | " );
+				buffer.append( " | " );
 			}
 		}
 
 		if ( hasNextSibling( tree ) ) {
-			pw.print( " \\-" );
+			buffer.append( " \\-" );
 		}
 		else {
-			pw.print( " +-" );
+			buffer.append( " +-" );
 		}
 
-		writeNode( pw, tree );
+		writeNode( buffer, tree );
 
-		ArrayList newParents = new ArrayList( parents );
-		newParents.add( tree );
+		// the parents list is used as a stack : push this node for the duration of its children
+		parents.add( tree );
         for ( int i = 0; i < tree.getChildCount(); i++ ) {
-            render( newParents, pw, tree.getChild( i ) );
+            render( parents, buffer, tree.getChild( i ) );
         }
-		newParents.clear();
+		parents.remove( parents.size() - 1 );
 	}
 
     private boolean hasNextSibling(Tree tree) {
@@ -181,16 +221,17 @@ public class TreePrinter {
                 && tree.getParent().getChildCount() <= tree.getChildIndex();
     }
 
-	private void writeNode(PrintWriter pw, Tree tree) {
-		pw.println( nodeToString( tree ) );
+	private void writeNode(StringBuilder buffer, Tree tree) {
+		appendNode( buffer, tree );
+		buffer.append( LINE_SEPARATOR );
 	}
 
-    private String nodeToString(Tree tree) {
+    private void appendNode(StringBuilder buf, Tree tree) {
         if ( tree == null ) {
-			return "{node:null}";
+			buf.append( "{node:null}" );
+			return;
 		}
 
-		StringBuffer buf = new StringBuffer();
 		buf.append( "[" ).append( getTokenTypeName( tree.getType() ) );
 		if ( showClassNames ) {
 			buf.append( " (" ).append( StringHelper.unqualify( tree.getClass().getName() ) ).append( ')' );
@@ -208,13 +249,23 @@ public class TreePrinter {
             DisplayableNode displayableNode = ( DisplayableNode ) tree;
             buf.append( " => " ).append( displayableNode.getDisplayText() );
         }
-        return buf.toString();
     }
 
     public static void appendEscapedMultibyteChars(String text, StringBuffer buf) {
-        char[] chars = text.toCharArray();
-        for (int i = 0; i < chars.length; i++) {
-            char aChar = chars[i];
+        for (int i = 0; i < text.length(); i++) {
+            char aChar = text.charAt( i );
+            if (aChar > 256) {
+                buf.append("\\u");
+                buf.append(Integer.toHexString(aChar));
+            }
+            else
+                buf.append(aChar);
+        }
+    }
+
+    public static void appendEscapedMultibyteChars(String text, StringBuilder buf) {
+        for (int i = 0; i < text.length(); i++) {
+            char aChar = text.charAt( i );
             if (aChar > 256) {
                 buf.append("\\u");
                 buf.append(Integer.toHexString(aChar));
@@ -225,7 +276,7 @@ public class TreePrinter {
     }
 
     public static String escapeMultibyteChars(String text) {
-        StringBuffer buf = new StringBuffer();
+        StringBuilder buf = new StringBuilder();
         appendEscapedMultibyteChars(text,buf);
         return buf.toString();
     }
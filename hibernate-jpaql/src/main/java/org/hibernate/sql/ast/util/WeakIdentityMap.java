@@ -0,0 +1,121 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2008, Red Hat Middleware LLC or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Middleware LLC.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ *
+ */
+package org.hibernate.sql.ast.util;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A concurrent map whose keys are compared by identity and only weakly referenced, for caching per dialect (or per
+ * function registry, ...) state without locking on each lookup.  As with {@link java.util.WeakHashMap}, values must
+ * not reference their keys or the entries are never let go of.
+ */
+public final class WeakIdentityMap<K,V> {
+	private final ConcurrentMap<Object,V> entries = new ConcurrentHashMap<Object,V>();
+	private final ReferenceQueue<K> collectedKeys = new ReferenceQueue<K>();
+
+	/**
+	 * Retrieve the value of the given key.
+	 *
+	 * @param key The key.
+	 *
+	 * @return The value, or null if none was put for this key.
+	 */
+	public V get(K key) {
+		return entries.get( new LookupKey( key ) );
+	}
+
+	/**
+	 * Put a value for the given key, unless there already is one.
+	 *
+	 * @param key The key.
+	 * @param value The value.
+	 *
+	 * @return The value now held for the key; the given one unless another was put first.
+	 */
+	public V putIfAbsent(K key, V value) {
+		Reference<? extends K> collected;
+		while ( ( collected = collectedKeys.poll() ) != null ) {
+			entries.remove( collected );
+		}
+		final V previous = entries.putIfAbsent( new WeakKey<K>( key, collectedKeys ), value );
+		return previous == null ? value : previous;
+	}
+
+	/**
+	 * Remove all entries.
+	 */
+	public void clear() {
+		entries.clear();
+	}
+
+	private static Object referent(Object key) {
+		return key instanceof WeakKey ? ( ( WeakKey<?> ) key ).get() : ( ( LookupKey ) key ).key;
+	}
+
+	private static final class WeakKey<K> extends WeakReference<K> {
+		private final int hashCode;
+
+		private WeakKey(K key, ReferenceQueue<K> queue) {
+			super( key, queue );
+			this.hashCode = System.identityHashCode( key );
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if ( this == o ) {
+				return true;
+			}
+			final Object key = get();
+			return key != null && ( o instanceof WeakKey || o instanceof LookupKey ) && referent( o ) == key;
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+	}
+
+	private static final class LookupKey {
+		private final Object key;
+
+		private LookupKey(Object key) {
+			this.key = key;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			return ( o instanceof WeakKey || o instanceof LookupKey ) && referent( o ) == key;
+		}
+
+		@Override
+		public int hashCode() {
+			return System.identityHashCode( key );
+		}
+	}
+}
@@ -0,0 +1,310 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2008, Red Hat Middleware LLC or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Middleware LLC.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ *
+ */
+package org.hibernate.sql;
+
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.StringTokenizer;
+
+import junit.framework.TestCase;
+
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.HSQLDialect;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.dialect.SQLServerDialect;
+import org.hibernate.dialect.function.SQLFunction;
+import org.hibernate.dialect.function.SQLFunctionRegistry;
+import org.hibernate.dialect.function.StandardSQLFunction;
+import org.hibernate.util.StringHelper;
+
+/**
+ * Differential tests checking that the scanner behind {@link Template#renderWhereStringTemplate} renders exactly
+ * what the original <tt>StringTokenizer</tt> based implementation (kept here as {@link #legacyRender}) did.
+ */
+public class WhereTemplateRenderingTest extends TestCase {
+	private static final String[] FRAGMENTS = {
+			"",
+			" ",
+			"a = 1",
+			"deleted = 0 and type in ('A', 'B')",
+			"lower(name) like :pattern",
+			"upper( `Name` ) = 'X''s'",
+			"`Mixed Case` is not null or \"quoted\" = 1",
+			"[bracketed] <> 2 and x.y = z",
+			"exists (select 1 from Other o where o.id = id and o.flag = 'from x')",
+			"id in (select x.id from Foo x, Bar as b join Baz z on z.id = b.id where b.ok = 1)",
+			"case when a > 0 then 'pos' else 'neg' end = 'pos'",
+			"trim(leading '0' from code) || suffix",
+			"cast(amount as integer) >= limitAmount",
+			"a=b&c|d!e",
+			"SELECT Col FROM Tbl AS T WHERE T.Col = Col",
+			"current_date > validUntil",
+			"abc\tdef\nghi\rjkl\fmno",
+			"'unterminated",
+			"`unterminated",
+			"\u000Bname = 1",
+			"Straße = 'ü'",
+	};
+
+	private static final String[] VOCABULARY = {
+			"a", "b", "Name", "x.y", "tbl.col", ":param", ":p1", "1", "2.5", "'lit'", "'it''s'", "''",
+			"`q`", "`", "\"", "[", "]", "(", ")", ",", "=", "<", ">", "!", "+", "-", "*", "/", "|", "&", "'",
+			" ", " ", " ", "\t", "\n", "and", "OR", "not", "in", "is", "null", "like", "between", "select", "from",
+			"FROM", "join", "as", "AS", "where", "order", "by", "exists", "lower", "upper", "trim", "leading",
+			"case", "when", "then", "else", "end", "cast", "current_date", "abs", "count", "_under", "été",
+	};
+
+	private static final Dialect[] DIALECTS = { new HSQLDialect(), new MySQLDialect(), new SQLServerDialect() };
+
+	public void testFixedFragments() {
+		for ( Dialect dialect : DIALECTS ) {
+			for ( String fragment : FRAGMENTS ) {
+				assertSameRendering( fragment, dialect );
+			}
+		}
+	}
+
+	public void testRandomFragments() {
+		final Random random = new Random( 20081221L );
+		for ( Dialect dialect : DIALECTS ) {
+			for ( int i = 0; i < 3000; i++ ) {
+				StringBuilder fragment = new StringBuilder();
+				int tokens = random.nextInt( 25 );
+				for ( int t = 0; t < tokens; t++ ) {
+					fragment.append( VOCABULARY[ random.nextInt( VOCABULARY.length ) ] );
+					if ( random.nextBoolean() ) {
+						fragment.append( ' ' );
+					}
+				}
+				assertSameRendering( fragment.toString(), dialect );
+			}
+		}
+	}
+
+	public void testCustomPlaceholder() {
+		SQLFunctionRegistry functionRegistry = new SQLFunctionRegistry( DIALECTS[0], Collections.EMPTY_MAP );
+		String fragment = "a = b and exists (select 1 from T t where t.c = c)";
+		assertEquals(
+				legacyRender( fragment, "alias_", DIALECTS[0], functionRegistry ),
+				Template.renderWhereStringTemplate( fragment, "alias_", DIALECTS[0], functionRegistry )
+		);
+	}
+
+	public void testUserDefinedFunctions() {
+		Map<String,SQLFunction> userFunctions = Collections.singletonMap( "myfunc", ( SQLFunction ) new StandardSQLFunction( "myfunc" ) );
+		for ( Dialect dialect : DIALECTS ) {
+			SQLFunctionRegistry functionRegistry = new SQLFunctionRegistry( dialect, userFunctions );
+			KeywordClassifier classifier = new KeywordClassifier( dialect, userFunctions );
+			KeywordClassifier registryClassifier = KeywordClassifier.forFunctionRegistry( dialect, functionRegistry );
+			assertSame( registryClassifier, KeywordClassifier.forFunctionRegistry( dialect, functionRegistry ) );
+			assertTrue( registryClassifier.knowsUserFunctions() );
+			assertTrue( ( registryClassifier.classify( "myfunc" ) & KeywordClassifier.FUNCTION ) != 0 );
+			for ( String fragment : new String[] { "myfunc = 1", "MyFunc and x", "a || myfunc ( b )" } ) {
+				String expected = legacyRender( fragment, Template.TEMPLATE, dialect, functionRegistry );
+				assertEquals( expected, Template.renderWhereStringTemplate( fragment, Template.TEMPLATE, dialect, functionRegistry ) );
+				assertEquals( expected, Template.renderWhereStringTemplate( fragment, Template.TEMPLATE, dialect, classifier ) );
+			}
+		}
+	}
+
+	public void testLocaleIndependence() {
+		Map<String,SQLFunction> userFunctions = Collections.singletonMap( "myinit", ( SQLFunction ) new StandardSQLFunction( "myinit" ) );
+		SQLFunctionRegistry functionRegistry = new SQLFunctionRegistry( DIALECTS[0], userFunctions );
+		Locale locale = Locale.getDefault();
+		// lower-cases 'I' to a dotless 'i'
+		Locale.setDefault( new Locale( "tr", "TR" ) );
+		try {
+			assertEquals(
+					Template.TEMPLATE + ".ID IN (1) AND MYINIT",
+					Template.renderWhereStringTemplate( "ID IN (1) AND MYINIT", DIALECTS[0], functionRegistry )
+			);
+		}
+		finally {
+			Locale.setDefault( locale );
+		}
+	}
+
+	public void testCompiledTemplates() {
+		for ( Dialect dialect : DIALECTS ) {
+			SQLFunctionRegistry functionRegistry = new SQLFunctionRegistry( dialect, Collections.EMPTY_MAP );
+			for ( String fragment : FRAGMENTS ) {
+				String template = Template.renderWhereStringTemplate( fragment, dialect, functionRegistry );
+				CompiledTemplate compiled = Template.compileWhereStringTemplate( fragment, dialect, functionRegistry );
+				assertEquals( template, compiled.getTemplate() );
+				assertEquals( StringHelper.replace( template, Template.TEMPLATE, "t0_" ), compiled.render( "t0_" ) );
+				assertEquals( StringHelper.replace( template, Template.TEMPLATE, "" ), compiled.render( "" ) );
+			}
+		}
+		assertEquals( "x$PlaceHolder$", CompiledTemplate.compile( "x$PlaceHolder$", "$$" ).render( "a" ) );
+		assertEquals( StringHelper.replace( "$$.$$$$$", "$$", "a" ), CompiledTemplate.compile( "$$.$$$$$", "$$" ).render( "a" ) );
+	}
+
+	private void assertSameRendering(String fragment, Dialect dialect) {
+		SQLFunctionRegistry functionRegistry = new SQLFunctionRegistry( dialect, Collections.EMPTY_MAP );
+		assertEquals(
+				"fragment [" + fragment + "] with " + dialect.getClass().getName(),
+				legacyRender( fragment, Template.TEMPLATE, dialect, functionRegistry ),
+				Template.renderWhereStringTemplate( fragment, Template.TEMPLATE, dialect, functionRegistry )
+		);
+	}
+
+	/**
+	 * The original implementation of {@link Template#renderWhereStringTemplate(String, String, Dialect, SQLFunctionRegistry)}.
+	 */
+	private static String legacyRender(String sqlWhereString, String placeholder, Dialect dialect, SQLFunctionRegistry functionRegistry ) {
+		//TODO: make this a bit nicer
+		String symbols = new StringBuffer()
+			.append("=><!+-*/()',|&`")
+			.append(StringHelper.WHITESPACE)
+			.append( dialect.openQuote() )
+			.append( dialect.closeQuote() )
+			.toString();
+		StringTokenizer tokens = new StringTokenizer(sqlWhereString, symbols, true);
+		
+		StringBuffer result = new StringBuffer();
+		boolean quoted = false;
+		boolean quotedIdentifier = false;
+		boolean beforeTable = false;
+		boolean inFromClause = false;
+		boolean afterFromTable = false;
+		
+		boolean hasMore = tokens.hasMoreTokens();
+		String nextToken = hasMore ? tokens.nextToken() : null;
+		while (hasMore) {
+			String token = nextToken;
+			String lcToken = token.toLowerCase();
+			hasMore = tokens.hasMoreTokens();
+			nextToken = hasMore ? tokens.nextToken() : null;
+			
+			boolean isQuoteCharacter = false;
+			
+			if ( !quotedIdentifier && "'".equals(token) ) {
+				quoted = !quoted;
+				isQuoteCharacter = true;
+			}
+			
+			if ( !quoted ) {
+				
+				boolean isOpenQuote;
+				if ( "`".equals(token) ) {
+					isOpenQuote = !quotedIdentifier;
+					token = lcToken = isOpenQuote ? 
+						new Character( dialect.openQuote() ).toString() :
+						new Character( dialect.closeQuote() ).toString();
+					quotedIdentifier = isOpenQuote;	
+					isQuoteCharacter = true;
+				}
+				else if ( !quotedIdentifier && ( dialect.openQuote()==token.charAt(0) ) ) {
+					isOpenQuote = true;
+					quotedIdentifier = true;	
+					isQuoteCharacter = true;
+				}
+				else if ( quotedIdentifier && ( dialect.closeQuote()==token.charAt(0) ) ) {
+					quotedIdentifier = false;
+					isQuoteCharacter = true;
+					isOpenQuote = false;
+				}
+				else {
+					isOpenQuote = false;
+				}
+				
+				if (isOpenQuote) {
+					result.append(placeholder).append('.');
+				}
+				
+			}
+	
+			boolean quotedOrWhitespace = quoted || 
+				quotedIdentifier || 
+				isQuoteCharacter || 
+				Character.isWhitespace( token.charAt(0) );
+			
+			if (quotedOrWhitespace) {
+				result.append(token);
+			}
+			else if (beforeTable) {
+				result.append(token);
+				beforeTable = false;
+				afterFromTable = true;
+			}
+			else if (afterFromTable) {
+				if ( !"as".equals(lcToken) ) afterFromTable = false;
+				result.append(token);
+			}
+			else if ( isNamedParameter(token) ) {
+				result.append(token);
+			}
+			else if (
+				isIdentifier(token, dialect) &&
+				!isFunctionOrKeyword(lcToken, nextToken, dialect , functionRegistry)
+			) {
+				result.append(placeholder)
+					.append('.')
+					.append( dialect.quote(token) );
+			}
+			else {
+				if ( Template.BEFORE_TABLE_KEYWORDS.contains(lcToken) ) {
+					beforeTable = true;
+					inFromClause = true;
+				}
+				else if ( inFromClause && ",".equals(lcToken) ) {
+					beforeTable = true;
+				}
+				result.append(token);
+			}
+			
+			if ( //Yuck:
+					inFromClause && 
+					Template.KEYWORDS.contains(lcToken) && //"as" is not in KEYWORDS
+					!Template.BEFORE_TABLE_KEYWORDS.contains(lcToken)
+			) { 
+				inFromClause = false;
+			}
+
+		}
+		return result.toString();
+	}
+
+	private static boolean isNamedParameter(String token) {
+		return token.startsWith(":");
+	}
+
+	private static boolean isFunctionOrKeyword(String lcToken, String nextToken, Dialect dialect, SQLFunctionRegistry functionRegistry) {
+		return "(".equals(nextToken) ||
+			Template.KEYWORDS.contains(lcToken) ||
+			functionRegistry.hasFunction(lcToken) ||
+			dialect.getKeywords().contains(lcToken) ||
+			Template.FUNCTION_KEYWORDS.contains(lcToken);
+	}
+
+	private static boolean isIdentifier(String token, Dialect dialect) {
+		return token.charAt(0)=='`' || ( //allow any identifier quoted with backtick
+			Character.isLetter( token.charAt(0) ) && //only recognizes identifiers beginning with a letter
+			token.indexOf('.') < 0
+		);
+	}
+}
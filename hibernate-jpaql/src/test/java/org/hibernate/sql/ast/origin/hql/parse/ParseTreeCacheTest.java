@@ -0,0 +1,136 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2008, Red Hat Middleware LLC or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Middleware LLC.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ *
+ */
+package org.hibernate.sql.ast.origin.hql.parse;
+
+import junit.framework.TestCase;
+import org.antlr.runtime.RecognitionException;
+import org.antlr.runtime.Token;
+import org.antlr.runtime.tree.CommonTree;
+import org.antlr.runtime.tree.Tree;
+
+import org.hibernate.sql.ast.QuerySyntaxException;
+
+/**
+ * Asserts what {@link ParseTreeCache} keys statements on, and that the trees it hands out are private copies.
+ */
+public class ParseTreeCacheTest extends TestCase {
+
+	public void testNormalize() {
+		assertEquals( "from Animal a", ParseTreeCache.normalize( "from Animal a" ) );
+		assertEquals( "from Animal a", ParseTreeCache.normalize( "  from\tAnimal \n  a \r\n" ) );
+		// quoted literals are left alone
+		assertEquals(
+				"from Animal a where a.description = 'x \t  y'",
+				ParseTreeCache.normalize( "from  Animal a\nwhere a.description = 'x \t  y'" )
+		);
+	}
+
+	public void testHitOnNormalizedText() throws RecognitionException {
+		ParseTreeCache cache = new ParseTreeCache();
+		String first = cache.getStatementTree( "from Animal a where a.bodyWeight > 10" ).toStringTree();
+		assertEquals( 1, cache.getMissCount() );
+		assertEquals( 0, cache.getHitCount() );
+
+		String second = cache.getStatementTree( "from Animal a\n\twhere a.bodyWeight  >  10 " ).toStringTree();
+		assertEquals( first, second );
+		assertEquals( 1, cache.getMissCount() );
+		assertEquals( 1, cache.getHitCount() );
+		assertEquals( 1, cache.getEntryCount() );
+		assertTrue( cache.getTotalNodeCount() > 0 );
+	}
+
+	public void testHandsOutCopies() throws RecognitionException {
+		ParseTreeCache cache = new ParseTreeCache();
+		Tree first = cache.getStatementTree( "from Animal a" );
+		String expected = first.toStringTree();
+		// what later phases do to the trees they are given
+		first.deleteChild( 0 );
+
+		Tree second = cache.getStatementTree( "from Animal a" );
+		assertNotSame( first, second );
+		assertEquals( expected, second.toStringTree() );
+		Tree third = cache.getStatementTree( "from Animal a" );
+		assertNotSame( second, third );
+	}
+
+	public void testCopiesKeepIdentifierTokens() throws RecognitionException {
+		ParseTreeCache cache = new ParseTreeCache();
+		String hql = "select a.description from Animal a where a.bodyWeight > 10 order by a.description";
+		Tree parsed = cache.getStatementTree( hql );
+		Tree copied = cache.getStatementTree( hql );
+		assertTrue( assertSameTokens( parsed, copied ) > 0 );
+	}
+
+	/**
+	 * @return The number of identifier tokens compared.
+	 */
+	private static int assertSameTokens(Tree expected, Tree actual) {
+		final Token expectedToken = ( ( CommonTree ) expected ).getToken();
+		final Token actualToken = ( ( CommonTree ) actual ).getToken();
+		int identifiers = 0;
+		if ( expectedToken != null ) {
+			assertEquals( expectedToken.getClass(), actualToken.getClass() );
+			if ( expectedToken instanceof IdentifierToken ) {
+				assertEquals(
+						( ( IdentifierToken ) expectedToken ).getSoftKeyword(),
+						( ( IdentifierToken ) actualToken ).getSoftKeyword()
+				);
+				identifiers++;
+			}
+		}
+		assertEquals( expected.getChildCount(), actual.getChildCount() );
+		for ( int i = 0; i < expected.getChildCount(); i++ ) {
+			identifiers += assertSameTokens( expected.getChild( i ), actual.getChild( i ) );
+		}
+		return identifiers;
+	}
+
+	public void testSyntaxErrorNotCached() throws RecognitionException {
+		ParseTreeCache cache = new ParseTreeCache();
+		for ( int i = 0; i < 2; i++ ) {
+			try {
+				cache.getStatementTree( "from Animal a where" );
+				fail( "expected a syntax error" );
+			}
+			catch ( QuerySyntaxException expected ) {
+			}
+		}
+		assertEquals( 0, cache.getEntryCount() );
+		assertEquals( 0, cache.getHitCount() );
+	}
+
+	public void testBounded() throws RecognitionException {
+		ParseTreeCache cache = new ParseTreeCache( new ParserContextDefaultImpl(), 2, ParseTreeCache.DEFAULT_MAX_TOTAL_NODES );
+		cache.getStatementTree( "from Animal" );
+		cache.getStatementTree( "from Zoo" );
+		cache.getStatementTree( "from Human" );
+		assertEquals( 2, cache.getEntryCount() );
+		assertEquals( 1, cache.getEvictionCount() );
+
+		cache.clear();
+		assertEquals( 0, cache.getEntryCount() );
+		assertEquals( 0, cache.getTotalNodeCount() );
+	}
+}
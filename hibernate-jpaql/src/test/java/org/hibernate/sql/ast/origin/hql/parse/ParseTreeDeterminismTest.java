@@ -0,0 +1,137 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2008, Red Hat Middleware LLC or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Middleware LLC.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ *
+ */
+package org.hibernate.sql.ast.origin.hql.parse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import junit.framework.TestCase;
+import org.antlr.runtime.RecognitionException;
+
+/**
+ * Runs the statements of the parser gUnit corpus through two distinct {@link ParseTreeCache parse tree caches}, in
+ * opposite orders, and asserts that each statement yields the exact same tree both times; i.e. that the trees (the
+ * implicit aliases in particular) do not depend on what was parsed before.
+ */
+public class ParseTreeDeterminismTest extends TestCase {
+	private static final String CORPUS = "org/hibernate/sql/ast/origin/hql/parse/gUnitHQLGrammar.testsuite";
+
+	/**
+	 * Matches a statement rule test : either a "quoted" or a &lt;&lt;multi-line&gt;&gt; input, followed by its
+	 * expected outcome.
+	 */
+	private static final Pattern TEST = Pattern.compile(
+			"(?s)(?:\"((?:[^\"\\\\\\n]|\\\\.)*)\"|<<(.*?)>>)\\s*(OK|FAIL|->)"
+	);
+
+	public void testCorpusParsesIdenticallyTwice() throws Exception {
+		List<String> statements = loadStatements();
+		assertTrue( "gUnit corpus not found", !statements.isEmpty() );
+
+		List<String> firstRun = parseAll( new ParseTreeCache(), statements );
+
+		List<String> reversed = new ArrayList<String>( statements );
+		Collections.reverse( reversed );
+		List<String> secondRun = parseAll( new ParseTreeCache(), reversed );
+		Collections.reverse( secondRun );
+
+		int implicitlyAliased = 0;
+		for ( int i = 0; i < statements.size(); i++ ) {
+			assertEquals( statements.get( i ), firstRun.get( i ), secondRun.get( i ) );
+			if ( firstRun.get( i ).contains( "<gen:0>" ) ) {
+				implicitlyAliased++;
+			}
+		}
+		assertTrue( "no implicit alias in corpus", implicitlyAliased > 0 );
+	}
+
+	public void testImplicitAliasesNumberedByPosition() throws RecognitionException {
+		ParseTreeCache cache = new ParseTreeCache();
+		cache.getStatementTree( "from Animal" );
+		cache.getStatementTree( "from Zoo" );
+		String tree = cache.getStatementTree( "select a.name from Animal a, Zoo" ).toStringTree();
+		assertTrue( tree, tree.contains( "<gen:0>" ) );
+		assertFalse( tree, tree.contains( "<gen:2>" ) );
+	}
+
+	private List<String> parseAll(ParseTreeCache cache, List<String> statements) throws RecognitionException {
+		List<String> results = new ArrayList<String>( statements.size() );
+		for ( String statement : statements ) {
+			try {
+				results.add( cache.getStatementTree( statement ).toStringTree() );
+			}
+			catch ( RuntimeException e ) {
+				// some corpus statements are not (yet) handled by the parser; the outcome must be the same all the same
+				results.add( e.getClass().getName() );
+			}
+		}
+		return results;
+	}
+
+	private List<String> loadStatements() throws IOException {
+		InputStream stream = ParseTreeDeterminismTest.class.getClassLoader().getResourceAsStream( CORPUS );
+		assertNotNull( "gUnit corpus not found on the test classpath : " + CORPUS, stream );
+		String corpus = read( stream );
+		// only the 'statement' rule tests
+		int start = corpus.indexOf( "\nstatement:" );
+		int end = corpus.indexOf( "\nfilterStatement:" );
+		corpus = corpus.substring( start, end < 0 ? corpus.length() : end );
+
+		List<String> statements = new ArrayList<String>();
+		Matcher matcher = TEST.matcher( corpus );
+		while ( matcher.find() ) {
+			if ( "FAIL".equals( matcher.group( 3 ) ) ) {
+				continue;
+			}
+			statements.add(
+					matcher.group( 1 ) != null ? matcher.group( 1 ).replace( "\\\"", "\"" ) : matcher.group( 2 )
+			);
+		}
+		return statements;
+	}
+
+	private static String read(InputStream stream) throws IOException {
+		Reader reader = new InputStreamReader( stream, "UTF-8" );
+		try {
+			StringBuilder buffer = new StringBuilder();
+			char[] chars = new char[4096];
+			int count;
+			while ( ( count = reader.read( chars ) ) != -1 ) {
+				buffer.append( chars, 0, count );
+			}
+			return buffer.toString();
+		}
+		finally {
+			reader.close();
+		}
+	}
+}
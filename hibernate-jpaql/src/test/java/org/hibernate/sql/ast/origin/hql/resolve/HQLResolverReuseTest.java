@@ -0,0 +1,176 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2008, Red Hat Middleware LLC or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Middleware LLC.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ *
+ */
+package org.hibernate.sql.ast.origin.hql.resolve;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+import org.antlr.runtime.ANTLRStringStream;
+import org.antlr.runtime.CommonTokenStream;
+import org.antlr.runtime.RecognitionException;
+import org.antlr.runtime.tree.CommonTreeNodeStream;
+import org.antlr.runtime.tree.Tree;
+
+import org.hibernate.cfg.Configuration;
+import org.hibernate.cfg.Environment;
+import org.hibernate.dialect.HSQLDialect;
+import org.hibernate.engine.SessionFactoryImplementor;
+import org.hibernate.hql.classic.ClassicQueryTranslatorFactory;
+import org.hibernate.sql.ast.origin.hql.parse.HQLLexer;
+import org.hibernate.sql.ast.origin.hql.parse.HQLParser;
+
+/**
+ * Asserts that reusing a {@link HQLResolver} (directly or through a {@link HQLResolverFactory}) gives the same
+ * results as using a new one for each statement; i.e. that no state leaks from one resolution to the next.
+ */
+public class HQLResolverReuseTest extends TestCase {
+	private static final String[] STATEMENTS = new String[] {
+			"from Animal",
+			"from Animal a where a.bodyWeight > 10",
+			"select a.mother from Animal a where a.father.description = 'x'",
+			"from Zoo z where z.mammals['dog'].id = ?",
+			"from Human h join h.friends f",
+			"select h.nickName from Human h left join h.pets p",
+			"select h.name.first from Human h order by h.height"
+	};
+
+	private SessionFactoryImplementor sessionFactory;
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		sessionFactory = ( SessionFactoryImplementor ) new Configuration()
+				.setProperty( Environment.HBM2DDL_AUTO, "none" )
+				.setProperty( Environment.DIALECT, HSQLDialect.class.getName() )
+				.setProperty( Environment.QUERY_TRANSLATOR, ClassicQueryTranslatorFactory.class.getName() )
+				.addResource( "org/hibernate/sql/ast/origin/hql/domain/Mappings.hbm.xml" )
+				.buildSessionFactory();
+	}
+
+	protected void tearDown() throws Exception {
+		if ( sessionFactory != null ) {
+			sessionFactory.close();
+		}
+		super.tearDown();
+	}
+
+	public void testResetResolverMatchesNewResolver() throws RecognitionException {
+		List<String> expected = new ArrayList<String>();
+		for ( String hql : STATEMENTS ) {
+			HQLResolver resolver = new HQLResolver( nodes( hql ), sessionFactory );
+			expected.add( render( resolver, ( Tree ) resolver.statement().getTree() ) );
+		}
+
+		HQLResolver resolver = new HQLResolver( null, sessionFactory );
+		// twice over, so that every statement also follows every other one
+		for ( int pass = 0; pass < 2; pass++ ) {
+			for ( int i = 0; i < STATEMENTS.length; i++ ) {
+				resolver.reset( nodes( STATEMENTS[i] ) );
+				assertEquals( STATEMENTS[i], expected.get( i ), render( resolver, ( Tree ) resolver.statement().getTree() ) );
+			}
+		}
+	}
+
+	public void testResetDiscardsPersisterSpaces() throws RecognitionException {
+		HQLResolver resolver = new HQLResolver( nodes( "from Animal a" ), sessionFactory );
+		resolver.statement();
+		assertTrue( resolver.getCurrentPersisterSpaceContext().isContainedAlias( "a" ) );
+
+		resolver.reset( nodes( "from Zoo z" ) );
+		assertFalse( resolver.getCurrentPersisterSpaceContext().isContainedAlias( "a" ) );
+		resolver.statement();
+		assertFalse( resolver.getCurrentPersisterSpaceContext().isContainedAlias( "a" ) );
+		assertTrue( resolver.getCurrentPersisterSpaceContext().isContainedAlias( "z" ) );
+	}
+
+	public void testFactoryReusesReleasedResolver() throws RecognitionException {
+		HQLResolverFactory factory = new HQLResolverFactory( sessionFactory );
+
+		HQLResolver first = factory.acquireResolver( nodes( "from Animal a" ) );
+		String firstResult = render( first, ( Tree ) first.statement().getTree() );
+		factory.releaseResolver( first );
+		assertNull( first.getTreeNodeStream() );
+		assertFalse( first.getCurrentPersisterSpaceContext().isContainedAlias( "a" ) );
+
+		HQLResolver second = factory.acquireResolver( nodes( "from Animal a" ) );
+		assertSame( first, second );
+		assertEquals( firstResult, render( second, ( Tree ) second.statement().getTree() ) );
+		factory.releaseResolver( second );
+	}
+
+	public void testFactoryParsesThroughCache() throws RecognitionException {
+		HQLResolverFactory factory = new HQLResolverFactory( sessionFactory );
+
+		HQLResolver first = factory.acquireResolver( "from Animal a where a.bodyWeight > 10" );
+		String firstResult = render( first, ( Tree ) first.statement().getTree() );
+		factory.releaseResolver( first );
+
+		HQLResolver second = factory.acquireResolver( "from Animal a  where a.bodyWeight > 10" );
+		assertEquals( firstResult, render( second, ( Tree ) second.statement().getTree() ) );
+		factory.releaseResolver( second );
+		assertEquals( 1, factory.getParseTreeCache().getMissCount() );
+		assertEquals( 1, factory.getParseTreeCache().getHitCount() );
+	}
+
+	public void testFactoryHandsOutSeparateResolverWhileInUse() {
+		HQLResolverFactory factory = new HQLResolverFactory( sessionFactory );
+
+		HQLResolver outer = factory.acquireResolver( nodes( "from Animal" ) );
+		HQLResolver inner = factory.acquireResolver( nodes( "from Zoo" ) );
+		assertNotSame( outer, inner );
+		factory.releaseResolver( inner );
+		// releasing the throw-away instance must leave the thread's own untouched
+		assertNotNull( outer.getTreeNodeStream() );
+		factory.releaseResolver( outer );
+
+		assertSame( outer, factory.acquireResolver( nodes( "from Zoo" ) ) );
+		factory.releaseResolver( outer );
+	}
+
+	public void testFactoryLetsGoOfResolverOnceClosed() {
+		HQLResolverFactory factory = new HQLResolverFactory( sessionFactory );
+
+		HQLResolver first = factory.acquireResolver( nodes( "from Animal" ) );
+		sessionFactory.close();
+		factory.releaseResolver( first );
+		sessionFactory = null;
+
+		assertNotSame( first, factory.acquireResolver( nodes( "from Zoo" ) ) );
+	}
+
+	private String render(HQLResolver resolver, Tree tree) {
+		return resolver.getTreePrinter().renderAsString( tree, "Resolution Result" );
+	}
+
+	private static CommonTreeNodeStream nodes(String hql) {
+		CommonTokenStream tokens = new CommonTokenStream( new HQLLexer( new ANTLRStringStream( hql ) ) );
+		try {
+			return new CommonTreeNodeStream( new HQLParser( tokens ).statement().getTree() );
+		}
+		catch ( RecognitionException e ) {
+			throw new IllegalArgumentException( "could not parse [" + hql + "]", e );
+		}
+	}
+}
@@ -0,0 +1,122 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2008, Red Hat Middleware LLC or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Middleware LLC.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ *
+ */
+package org.hibernate.sql.ast.origin.hql.resolve;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.TreeSet;
+
+import junit.framework.TestCase;
+import org.antlr.runtime.ANTLRStringStream;
+import org.antlr.runtime.CommonTokenStream;
+import org.antlr.runtime.RecognitionException;
+import org.antlr.runtime.tree.CommonTreeNodeStream;
+import org.antlr.runtime.tree.Tree;
+
+import org.hibernate.cfg.Configuration;
+import org.hibernate.cfg.Environment;
+import org.hibernate.dialect.HSQLDialect;
+import org.hibernate.engine.SessionFactoryImplementor;
+import org.hibernate.hql.classic.ClassicQueryTranslatorFactory;
+import org.hibernate.sql.ast.origin.hql.parse.HQLLexer;
+import org.hibernate.sql.ast.origin.hql.parse.HQLParser;
+import org.hibernate.sql.ast.tree.Table;
+
+/**
+ * Asserts which tables of the (joined-subclass, discriminator-less) Animal hierarchy survive once resolution has
+ * pruned the joins to unreferenced tables.
+ */
+public class JoinPruningTest extends TestCase {
+	private static final String[] ANIMAL_HIERARCHY = new String[] {
+			"Animal", "Reptile", "Lizard", "Mammal", "DomesticAnimal", "Cat", "Dog", "Human"
+	};
+	private static final String[] MAMMAL_HIERARCHY = new String[] {
+			"Animal", "Mammal", "DomesticAnimal", "Cat", "Dog", "Human"
+	};
+
+	private SessionFactoryImplementor sessionFactory;
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		sessionFactory = ( SessionFactoryImplementor ) new Configuration()
+				.setProperty( Environment.HBM2DDL_AUTO, "none" )
+				.setProperty( Environment.DIALECT, HSQLDialect.class.getName() )
+				.setProperty( Environment.QUERY_TRANSLATOR, ClassicQueryTranslatorFactory.class.getName() )
+				.addResource( "org/hibernate/sql/ast/origin/hql/domain/Mappings.hbm.xml" )
+				.buildSessionFactory();
+	}
+
+	protected void tearDown() throws Exception {
+		if ( sessionFactory != null ) {
+			sessionFactory.close();
+		}
+		super.tearDown();
+	}
+
+	public void testPropertyReferencesPruneUnreferencedTables() throws RecognitionException {
+		assertTables( new String[] { "Animal" }, "select a.bodyWeight from Animal a where a.description = 'x'", "a" );
+		assertTables( new String[] { "Animal", "Mammal" }, "select a.bodyWeight from Mammal a where a.pregnant = ?", "a" );
+	}
+
+	public void testEntityReferenceKeepsAllTables() throws RecognitionException {
+		assertTables( ANIMAL_HIERARCHY, "select a from Animal a", "a" );
+		assertTables( ANIMAL_HIERARCHY, "select a from Animal a where a.bodyWeight > 10", "a" );
+	}
+
+	public void testImplicitSelectKeepsAllTables() throws RecognitionException {
+		assertTables( ANIMAL_HIERARCHY, "from Animal a where a.bodyWeight > 10", "a" );
+		assertTables( MAMMAL_HIERARCHY, "from Mammal m", "m" );
+	}
+
+	private void assertTables(String[] expected, String hql, String alias) throws RecognitionException {
+		HQLResolver resolver = new HQLResolver( nodes( hql ), sessionFactory );
+		resolver.statement();
+		// the table spaces hang off the persister spaces; they are not part of the resolver's output tree
+		PersisterSpace persisterSpace = resolver.getCurrentPersisterSpaceContext().locatePersisterSpaceByAlias( alias );
+		assertNotNull( hql, persisterSpace );
+		Set<String> tableNames = new TreeSet<String>();
+		collectTableNames( ( ( Table.EntityTableSpace ) persisterSpace.getTableSpace() ).getDrivingTable(), tableNames );
+		assertEquals( hql, new TreeSet<String>( Arrays.asList( expected ) ), tableNames );
+	}
+
+	private static void collectTableNames(Tree tree, Set<String> tableNames) {
+		if ( tree instanceof Table ) {
+			tableNames.add( ( ( Table ) tree ).getTableNameText() );
+		}
+		for ( int i = 0; i < tree.getChildCount(); i++ ) {
+			collectTableNames( tree.getChild( i ), tableNames );
+		}
+	}
+
+	private static CommonTreeNodeStream nodes(String hql) {
+		CommonTokenStream tokens = new CommonTokenStream( new HQLLexer( new ANTLRStringStream( hql ) ) );
+		try {
+			return new CommonTreeNodeStream( new HQLParser( tokens ).statement().getTree() );
+		}
+		catch ( RecognitionException e ) {
+			throw new IllegalArgumentException( "could not parse [" + hql + "]", e );
+		}
+	}
+}
@@ -0,0 +1,119 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2008, Red Hat Middleware LLC or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Middleware LLC.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ *
+ */
+package org.hibernate.sql.ast.origin.hql.resolve.path;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+import junit.framework.TestCase;
+import org.antlr.runtime.CommonToken;
+import org.antlr.runtime.tree.CommonTree;
+
+import org.hibernate.sql.ast.common.HibernateToken;
+import org.hibernate.sql.ast.common.HibernateTree;
+import org.hibernate.sql.ast.origin.hql.resolve.PersisterSpace;
+
+/**
+ * Asserts what {@link PathResolutionMemo} keys resolutions on, and that it hands out clones of the terminal
+ * resolutions.
+ */
+public class PathResolutionMemoTest extends TestCase {
+	private PathResolutionMemo memo;
+	private PersisterSpace persisterSpace;
+	private PathResolutionStrategy strategy;
+	private PathedPropertyReferenceSource root;
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		memo = new PathResolutionMemo();
+		persisterSpace = stub( PersisterSpace.class );
+		strategy = stub( PathResolutionStrategy.class );
+		root = stub( PathedPropertyReferenceSource.class );
+	}
+
+	public void testRootKeyedByStrategyInstance() {
+		memo.registerRoot( persisterSpace, strategy, 0, root );
+		assertSame( root, memo.locateRoot( persisterSpace, strategy, 0 ) );
+		assertNull( memo.locateRoot( persisterSpace, strategy, 1 ) );
+		assertNull( memo.locateRoot( stub( PersisterSpace.class ), strategy, 0 ) );
+		// another strategy, even of the same class, may be configured differently
+		assertNull( memo.locateRoot( persisterSpace, stub( PathResolutionStrategy.class ), 0 ) );
+	}
+
+	public void testIntermediateKeyedBySource() {
+		final PathedPropertyReferenceSource address = stub( PathedPropertyReferenceSource.class );
+		memo.registerIntermediate( root, "address", 0, address );
+		assertSame( address, memo.locateIntermediate( root, "address", 0 ) );
+		assertNull( memo.locateIntermediate( root, "address", 1 ) );
+		assertNull( memo.locateIntermediate( root, "city", 0 ) );
+		assertNull( memo.locateIntermediate( address, "address", 0 ) );
+	}
+
+	public void testTerminalClonesKeepTokens() {
+		final CommonToken token = new HibernateToken( 1, "city" );
+		token.setLine( 3 );
+		token.setCharPositionInLine( 14 );
+		final HibernateTree terminal = new HibernateTree( token );
+		terminal.addChild( new HibernateTree( 2, "a1_.city" ) );
+		memo.registerTerminal( root, "city", 0, terminal );
+
+		// later phases may rewrite the tree they were handed
+		terminal.deleteChild( 0 );
+
+		final HibernateTree first = memo.locateTerminal( root, "city", 0 );
+		final HibernateTree second = memo.locateTerminal( root, "city", 0 );
+		assertNotSame( first, second );
+		assertNotSame( first.getChild( 0 ), second.getChild( 0 ) );
+		assertEquals( "(city a1_.city)", first.toStringTree() );
+		assertEquals( 3, first.getLine() );
+		assertEquals( 14, first.getCharPositionInLine() );
+		assertEquals( "city", ( ( CommonTree ) first ).getToken().getText() );
+
+		assertNull( memo.locateTerminal( root, "city", 1 ) );
+		memo.clear();
+		assertNull( memo.locateTerminal( root, "city", 0 ) );
+	}
+
+	private static <T> T stub(Class<T> type) {
+		return type.cast(
+				Proxy.newProxyInstance(
+						PathResolutionMemoTest.class.getClassLoader(),
+						new Class[] { type },
+						new InvocationHandler() {
+							public Object invoke(Object proxy, Method method, Object[] args) {
+								if ( "hashCode".equals( method.getName() ) ) {
+									return System.identityHashCode( proxy );
+								}
+								if ( "equals".equals( method.getName() ) ) {
+									return proxy == args[0];
+								}
+								throw new UnsupportedOperationException( method.getName() );
+							}
+						}
+				)
+		);
+	}
+}
@@ -0,0 +1,150 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2008, Red Hat Middleware LLC or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Middleware LLC.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ *
+ */
+package org.hibernate.sql.ast.origin.ordering;
+
+import java.util.Collections;
+
+import junit.framework.TestCase;
+
+import org.hibernate.QueryException;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.HSQLDialect;
+import org.hibernate.dialect.function.SQLFunction;
+import org.hibernate.dialect.function.SQLFunctionRegistry;
+import org.hibernate.engine.SessionFactoryImplementor;
+import org.hibernate.sql.Template;
+
+/**
+ * Asserts when {@link OrderByTranslationCache} reuses translations, and when it does not.
+ */
+public class OrderByTranslationCacheTest extends TestCase {
+	private static final String FRAGMENT = "property asc, sql desc";
+	private static final String TRANSLATION = Template.TEMPLATE + ".prop asc, " + Template.TEMPLATE + ".sql desc";
+
+	private OrderByTranslationCache cache;
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		cache = new OrderByTranslationCache();
+	}
+
+	public void testSharedByMappingName() {
+		final Dialect dialect = new HSQLDialect();
+		final CountingMapper first = new CountingMapper();
+		final CountingMapper second = new CountingMapper();
+		assertEquals( TRANSLATION, cache.render( FRAGMENT, "Animal", context( first, dialect ) ) );
+		assertEquals( TRANSLATION, cache.render( FRAGMENT, "Animal", context( second, dialect ) ) );
+		assertTrue( first.count > 0 );
+		assertEquals( 0, second.count );
+
+		// a different mapping, or dialect, is translated again
+		assertEquals( TRANSLATION, cache.render( FRAGMENT, "Zoo.animals", context( second, dialect ) ) );
+		assertTrue( second.count > 0 );
+		final CountingMapper third = new CountingMapper();
+		assertEquals( TRANSLATION, cache.render( FRAGMENT, "Animal", context( third, new HSQLDialect() ) ) );
+		assertTrue( third.count > 0 );
+	}
+
+	public void testUnnamedMappingNotCached() {
+		final Dialect dialect = new HSQLDialect();
+		final CountingMapper mapper = new CountingMapper();
+		cache.render( FRAGMENT, null, context( mapper, dialect ) );
+		final int count = mapper.count;
+		assertEquals( TRANSLATION, cache.render( FRAGMENT, null, context( mapper, dialect ) ) );
+		assertEquals( 2 * count, mapper.count );
+	}
+
+	public void testVolatileColumnMapperNotCached() {
+		final Dialect dialect = new HSQLDialect();
+		final VolatileCountingMapper mapper = new VolatileCountingMapper();
+		cache.render( FRAGMENT, "Animal", context( mapper, dialect ) );
+		final int count = mapper.count;
+		mapper.column = "prop2";
+		assertEquals(
+				Template.TEMPLATE + ".prop2 asc, " + Template.TEMPLATE + ".sql desc",
+				cache.render( FRAGMENT, "Animal", context( mapper, dialect ) )
+		);
+		assertEquals( 2 * count, mapper.count );
+	}
+
+	public void testBounded() {
+		final Dialect dialect = new HSQLDialect();
+		final OrderByTranslationCache bounded = new OrderByTranslationCache( 1 );
+		bounded.render( FRAGMENT, "Animal", context( new CountingMapper(), dialect ) );
+		bounded.render( FRAGMENT, "Zoo.animals", context( new CountingMapper(), dialect ) );
+		final CountingMapper mapper = new CountingMapper();
+		assertEquals( TRANSLATION, bounded.render( FRAGMENT, "Animal", context( mapper, dialect ) ) );
+		assertTrue( mapper.count > 0 );
+	}
+
+	public void testClear() {
+		final Dialect dialect = new HSQLDialect();
+		cache.render( FRAGMENT, "Animal", context( new CountingMapper(), dialect ) );
+		cache.clear();
+		final CountingMapper mapper = new CountingMapper();
+		assertEquals( TRANSLATION, cache.render( FRAGMENT, "Animal", context( mapper, dialect ) ) );
+		assertTrue( mapper.count > 0 );
+	}
+
+	private static TranslationContext context(final ColumnMapper columnMapper, final Dialect dialect) {
+		final SQLFunctionRegistry functionRegistry = new SQLFunctionRegistry(
+				dialect,
+				Collections.<String,SQLFunction>emptyMap()
+		);
+		return new TranslationContext() {
+			public SessionFactoryImplementor getSessionFactory() {
+				return null;
+			}
+
+			public Dialect getDialect() {
+				return dialect;
+			}
+
+			public SQLFunctionRegistry getSqlFunctionRegistry() {
+				return functionRegistry;
+			}
+
+			public ColumnMapper getColumnMapper() {
+				return columnMapper;
+			}
+		};
+	}
+
+	private static class CountingMapper implements ColumnMapper {
+		protected String column = "prop";
+		protected int count;
+
+		public String[] map(String reference) {
+			count++;
+			if ( "property".equals( reference ) ) {
+				return new String[] { column };
+			}
+			throw new QueryException( "could not resolve property: " + reference );
+		}
+	}
+
+	private static class VolatileCountingMapper extends CountingMapper implements VolatileColumnMapper {
+	}
+}
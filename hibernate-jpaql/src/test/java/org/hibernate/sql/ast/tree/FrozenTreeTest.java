@@ -0,0 +1,100 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2008, Red Hat Middleware LLC or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Middleware LLC.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ *
+ */
+package org.hibernate.sql.ast.tree;
+
+import junit.framework.TestCase;
+import org.antlr.runtime.RecognitionException;
+import org.antlr.runtime.tree.Tree;
+
+import org.hibernate.sql.ast.common.HibernateTree;
+import org.hibernate.sql.ast.origin.hql.parse.HQLLexer;
+import org.hibernate.sql.ast.origin.hql.parse.ParseTreeCache;
+
+/**
+ * Asserts that a {@link FrozenTree} retains the shape, types and texts of the tree it was taken from, and that
+ * thawing it hands out independent trees.
+ */
+public class FrozenTreeTest extends TestCase {
+
+	public void testNavigation() {
+		// (1 (2 4 5) 3)
+		HibernateTree root = new HibernateTree( 1, "root" );
+		HibernateTree left = new HibernateTree( 2, "left" );
+		left.addChild( new HibernateTree( 4, "a" ) );
+		left.addChild( new HibernateTree( 5, "b" ) );
+		root.addChild( left );
+		root.addChild( new HibernateTree( 3, "right" ) );
+
+		FrozenTree frozen = FrozenTree.freeze( root );
+		assertEquals( 5, frozen.getNodeCount() );
+		assertEquals( 1, frozen.getType( 0 ) );
+		assertEquals( "root", frozen.getText( 0 ) );
+		assertEquals( 2, frozen.getChildCount( 0 ) );
+
+		int first = frozen.getChild( 0, 0 );
+		int second = frozen.getChild( 0, 1 );
+		assertEquals( "left", frozen.getText( first ) );
+		assertEquals( "right", frozen.getText( second ) );
+		assertEquals( second, frozen.getNextSibling( 0, first ) );
+		assertEquals( -1, frozen.getNextSibling( 0, second ) );
+		assertEquals( "b", frozen.getText( frozen.getChild( first, 1 ) ) );
+		assertEquals( 0, frozen.getChildCount( second ) );
+
+		try {
+			frozen.getChild( second, 0 );
+			fail();
+		}
+		catch ( IndexOutOfBoundsException expected ) {
+		}
+	}
+
+	public void testRoundTrip() throws RecognitionException {
+		Tree tree = new ParseTreeCache().getStatementTree(
+				"select a.name from Animal a where a.bodyWeight > 10 order by a.name"
+		);
+		FrozenTree frozen = FrozenTree.freeze( tree );
+		Tree thawed = frozen.thaw();
+		assertEquals( tree.toStringTree(), thawed.toStringTree() );
+		assertEquals( frozen.getNodeCount(), FrozenTree.freeze( thawed ).getNodeCount() );
+
+		// thawed trees are owned by the caller
+		thawed.deleteChild( 0 );
+		assertEquals( tree.toStringTree(), frozen.thaw().toStringTree() );
+		assertNotSame( frozen.thaw(), frozen.thaw() );
+	}
+
+	public void testOnlyTypeNamesInterned() {
+		HibernateTree root = new HibernateTree( HQLLexer.QUERY, new String( "QUERY" ) );
+		root.addChild( new HibernateTree( HQLLexer.STRING_LITERAL, new String( "'QUERY'" ) ) );
+		root.addChild( new HibernateTree( HQLLexer.IDENTIFIER, new String( "query" ) ) );
+
+		FrozenTree frozen = FrozenTree.freeze( root );
+		assertSame( "QUERY", frozen.getText( 0 ) );
+		assertEquals( "'QUERY'", frozen.getText( 1 ) );
+		assertNotSame( "'QUERY'", frozen.getText( 1 ) );
+		assertEquals( "query", frozen.getText( 2 ) );
+		assertNotSame( "query", frozen.getText( 2 ) );
+	}
+}
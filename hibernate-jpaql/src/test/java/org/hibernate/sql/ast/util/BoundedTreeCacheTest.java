@@ -0,0 +1,105 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2008, Red Hat Middleware LLC or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Middleware LLC.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ *
+ */
+package org.hibernate.sql.ast.util;
+
+import junit.framework.TestCase;
+
+/**
+ * Asserts that {@link BoundedTreeCache} stays within both of its bounds, evicting in least-recently-used order.
+ */
+public class BoundedTreeCacheTest extends TestCase {
+
+	public void testEvictsByEntries() {
+		BoundedTreeCache<String> cache = new BoundedTreeCache<String>( 2, 100 );
+		assertTrue( cache.put( "a", "A", 1 ) );
+		assertTrue( cache.put( "b", "B", 1 ) );
+		// touch 'a' so that 'b' is the least recently used
+		assertEquals( "A", cache.get( "a" ) );
+		assertTrue( cache.put( "c", "C", 1 ) );
+
+		assertEquals( 2, cache.getEntryCount() );
+		assertEquals( 1, cache.getEvictionCount() );
+		assertNull( cache.get( "b" ) );
+		assertEquals( "A", cache.get( "a" ) );
+		assertEquals( "C", cache.get( "c" ) );
+	}
+
+	public void testEvictsByNodes() {
+		BoundedTreeCache<String> cache = new BoundedTreeCache<String>( 10, 10 );
+		cache.put( "a", "A", 4 );
+		cache.put( "b", "B", 4 );
+		assertEquals( 8, cache.getTotalNodeCount() );
+
+		cache.put( "c", "C", 5 );
+		assertEquals( 2, cache.getEntryCount() );
+		assertEquals( 9, cache.getTotalNodeCount() );
+		assertNull( cache.get( "a" ) );
+		assertEquals( "B", cache.get( "b" ) );
+
+		// on its own too large; nothing is evicted for it
+		assertFalse( cache.put( "d", "D", 11 ) );
+		assertEquals( 2, cache.getEntryCount() );
+		assertNull( cache.get( "d" ) );
+	}
+
+	public void testReplaceKeepsNodeCount() {
+		BoundedTreeCache<String> cache = new BoundedTreeCache<String>( 10, 10 );
+		cache.put( "a", "A", 4 );
+		cache.put( "a", "A2", 3 );
+		assertEquals( 1, cache.getEntryCount() );
+		assertEquals( 3, cache.getTotalNodeCount() );
+		assertEquals( "A2", cache.get( "a" ) );
+	}
+
+	public void testStatistics() {
+		BoundedTreeCache<String> cache = new BoundedTreeCache<String>( 10, 10 );
+		assertNull( cache.get( "a" ) );
+		cache.put( "a", "A", 1 );
+		cache.get( "a" );
+		cache.get( "a" );
+		assertEquals( 1, cache.getMissCount() );
+		assertEquals( 2, cache.getHitCount() );
+
+		cache.clear();
+		assertEquals( 0, cache.getEntryCount() );
+		assertEquals( 0, cache.getTotalNodeCount() );
+		assertEquals( 2, cache.getHitCount() );
+	}
+
+	public void testInvalidBounds() {
+		try {
+			new BoundedTreeCache<String>( 0, 10 );
+			fail();
+		}
+		catch ( IllegalArgumentException expected ) {
+		}
+		try {
+			new BoundedTreeCache<String>( 10, 0 );
+			fail();
+		}
+		catch ( IllegalArgumentException expected ) {
+		}
+	}
+}
@@ -0,0 +1,113 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * Copyright (c) 2008, Red Hat Middleware LLC or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.  All third-party contributions are
+ * distributed under license by Red Hat Middleware LLC.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ *
+ */
+package org.hibernate.sql.ast.util;
+
+import java.util.Set;
+
+import junit.framework.TestCase;
+
+import org.hibernate.cfg.Configuration;
+import org.hibernate.cfg.Environment;
+import org.hibernate.dialect.HSQLDialect;
+import org.hibernate.engine.SessionFactoryImplementor;
+import org.hibernate.hql.classic.ClassicQueryTranslatorFactory;
+import org.hibernate.persister.entity.Queryable;
+import org.hibernate.sql.Template;
+import org.hibernate.sql.ast.origin.hql.domain.Animal;
+import org.hibernate.sql.ast.origin.ordering.EntityPersisterColumnMapper;
+
+/**
+ * Asserts the property names precomputed for the Animal hierarchy, and their use by <tt>order-by</tt> translation.
+ */
+public class PersisterPropertyNamesTest extends TestCase {
+	private SessionFactoryImplementor sessionFactory;
+	private Queryable animalPersister;
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		sessionFactory = ( SessionFactoryImplementor ) new Configuration()
+				.setProperty( Environment.HBM2DDL_AUTO, "none" )
+				.setProperty( Environment.DIALECT, HSQLDialect.class.getName() )
+				.setProperty( Environment.QUERY_TRANSLATOR, ClassicQueryTranslatorFactory.class.getName() )
+				.addResource( "org/hibernate/sql/ast/origin/hql/domain/Mappings.hbm.xml" )
+				.buildSessionFactory();
+		animalPersister = ( Queryable ) sessionFactory.getEntityPersister( Animal.class.getName() );
+	}
+
+	protected void tearDown() throws Exception {
+		if ( sessionFactory != null ) {
+			sessionFactory.close();
+		}
+		super.tearDown();
+	}
+
+	public void testSharedPerSessionFactory() {
+		assertSame(
+				PersisterPropertyNames.forSessionFactory( sessionFactory ),
+				PersisterPropertyNames.forSessionFactory( sessionFactory )
+		);
+	}
+
+	public void testPropertyNames() {
+		Set<String> names = PersisterPropertyNames.forSessionFactory( sessionFactory )
+				.getPropertyNames( Animal.class.getName() );
+		assertTrue( names.contains( "id" ) );
+		assertTrue( names.contains( "description" ) );
+		assertTrue( names.contains( "mother" ) );
+		assertTrue( names.contains( "mother.id" ) );
+		assertTrue( names.contains( "class" ) );
+		// subclass properties, components included
+		assertTrue( names.contains( "pregnant" ) );
+		assertTrue( names.contains( "name.first" ) );
+		assertFalse( names.contains( "body_weight" ) );
+	}
+
+	public void testContainsProperty() {
+		assertTrue( PersisterPropertyNames.containsProperty( animalPersister, "bodyWeight" ) );
+		assertTrue( PersisterPropertyNames.containsProperty( animalPersister, "zoo.id" ) );
+		assertFalse( PersisterPropertyNames.containsProperty( animalPersister, "mother_id" ) );
+		assertFalse( PersisterPropertyNames.containsProperty( animalPersister, "mother.nonexistent" ) );
+	}
+
+	public void testColumnMapper() {
+		EntityPersisterColumnMapper mapper = new EntityPersisterColumnMapper( animalPersister );
+		assertTrue( mapper.isPropertyReference( "serialNumber" ) );
+		assertFalse( mapper.isPropertyReference( "serial_number" ) );
+		assertEquals( "body_weight", mapper.map( "bodyWeight" )[0] );
+	}
+
+	public void testOrderByTranslation() {
+		assertEquals(
+				Template.TEMPLATE + ".body_weight desc, " + Template.TEMPLATE + ".serialNumber, "
+						+ Template.TEMPLATE + ".mother_id",
+				Template.renderOrderByStringTemplate(
+						"bodyWeight desc, serialNumber, mother_id",
+						animalPersister,
+						sessionFactory.getDialect(),
+						sessionFactory.getSqlFunctionRegistry()
+				)
+		);
+	}
+}